@@ -0,0 +1,438 @@
+using API.Data;
+using API.DTOs;
+using API.Models;
+using API.Services;
+using Microsoft.AspNetCore.Authorization;
+using Microsoft.AspNetCore.Mvc;
+using Microsoft.EntityFrameworkCore;
+using Microsoft.Extensions.Options;
+using System.Globalization;
+using System.Security.Claims;
+using System.Text.Json;
+
+namespace API.Controllers;
+
+[ApiController]
+[Route("api/[controller]")]
+[Authorize]
+public class AppointmentsController : ControllerBase
+{
+    private readonly ClinicDbContext _context;
+    private readonly ILogger<AppointmentsController> _logger;
+    private readonly AppointmentEventHub _events;
+    private readonly JsonSerializerOptions _jsonOptions;
+
+    // Silence longer than this lets proxies and the client's read timeout drop the stream
+    private static readonly TimeSpan HeartbeatInterval = TimeSpan.FromSeconds(15);
+    // Timestamps come from the app clock when the row is saved, not when it commits: a write
+    // stamped before the token can still commit after it. Deltas re-send this much history.
+    private static readonly TimeSpan ChangeWindow = TimeSpan.FromMinutes(2);
+
+    public AppointmentsController(ClinicDbContext context, ILogger<AppointmentsController> logger,
+        AppointmentEventHub events, IOptions<JsonOptions> jsonOptions)
+    {
+        _context = context;
+        _logger = logger;
+        _events = events;
+        _jsonOptions = jsonOptions.Value.JsonSerializerOptions;
+    }
+
+    private string GetUserId() => User.FindFirst(ClaimTypes.NameIdentifier)?.Value ?? string.Empty;
+    private string GetUserRole() => User.FindFirst(ClaimTypes.Role)?.Value ?? string.Empty;
+    private string GetRoleSpecificId() => User.FindFirst("RoleSpecificId")?.Value ?? string.Empty;
+
+    /// <summary>
+    /// Lists the caller's appointments. <paramref name="from"/> is inclusive and
+    /// <paramref name="to"/> exclusive so a client can ask for exactly one day.
+    /// </summary>
+    [HttpGet]
+    public async Task<ActionResult<ApiResponse<List<AppointmentDTO>>>> GetAppointments(
+        [FromQuery] string? status, [FromQuery] DateTime? from, [FromQuery] DateTime? to)
+    {
+        try
+        {
+            var query = ScopeToCaller(_context.Appointments.AsNoTracking());
+
+            if (!string.IsNullOrEmpty(status) && !status.Equals("all", StringComparison.OrdinalIgnoreCase))
+            {
+                if (!Enum.TryParse<AppointmentStatus>(status, true, out var parsedStatus))
+                {
+                    return BadRequest(ApiResponse<List<AppointmentDTO>>.ErrorResponse(
+                        "INVALID_STATUS", "Invalid appointment status"));
+                }
+                query = query.Where(a => a.Status == parsedStatus);
+            }
+
+            if (from.HasValue)
+            {
+                query = query.Where(a => a.AppointmentDate >= from.Value);
+            }
+
+            if (to.HasValue)
+            {
+                query = query.Where(a => a.AppointmentDate < to.Value);
+            }
+
+            var appointments = await query.OrderBy(a => a.AppointmentDate).ToDto().ToListAsync();
+
+            return Ok(ApiResponse<List<AppointmentDTO>>.SuccessResponse(appointments));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error fetching appointments");
+            return StatusCode(500, ApiResponse<List<AppointmentDTO>>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while fetching appointments"));
+        }
+    }
+
+    /// <summary>
+    /// Keyset-paginated variant of <see cref="GetAppointments"/>, newest first.
+    /// </summary>
+    [HttpGet("page")]
+    public async Task<ActionResult<ApiResponse<CursorPage<AppointmentDTO>>>> GetAppointmentsPage(
+        [FromQuery] string? status, [FromQuery] string? cursor, [FromQuery] int? limit)
+    {
+        try
+        {
+            var query = ScopeToCaller(_context.Appointments.AsNoTracking());
+
+            if (!string.IsNullOrEmpty(status) && !status.Equals("all", StringComparison.OrdinalIgnoreCase))
+            {
+                if (!Enum.TryParse<AppointmentStatus>(status, true, out var parsedStatus))
+                {
+                    return BadRequest(ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                        "INVALID_STATUS", "Invalid appointment status"));
+                }
+                query = query.Where(a => a.Status == parsedStatus);
+            }
+
+            var page = await query.ToCursorPageAsync(cursor, limit);
+
+            return Ok(ApiResponse<CursorPage<AppointmentDTO>>.SuccessResponse(page));
+        }
+        catch (ArgumentException)
+        {
+            return BadRequest(ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                "INVALID_CURSOR", "Invalid pagination cursor"));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error fetching appointments page");
+            return StatusCode(500, ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while fetching appointments"));
+        }
+    }
+
+    /// <summary>
+    /// Delta sync: returns rows created or updated since <paramref name="since"/> together
+    /// with a new token. Without a usable token the whole list is returned with Reset set.
+    /// </summary>
+    [HttpGet("changes")]
+    public async Task<ActionResult<ApiResponse<AppointmentChangesDTO>>> GetAppointmentChanges(
+        [FromQuery] string? since)
+    {
+        try
+        {
+            var query = ScopeToCaller(_context.Appointments.AsNoTracking());
+
+            // Computed before reading rows so a write landing in between is sent again next time
+            var latest = await query
+                .Select(a => (DateTime?)(a.UpdatedAt ?? a.CreatedAt))
+                .MaxAsync();
+            var token = (latest ?? DateTime.MinValue).Ticks.ToString(CultureInfo.InvariantCulture);
+
+            var reset = !long.TryParse(since, NumberStyles.Integer, CultureInfo.InvariantCulture, out var sinceTicks)
+                || sinceTicks < DateTime.MinValue.Ticks || sinceTicks > DateTime.MaxValue.Ticks;
+
+            if (!reset)
+            {
+                // Rows from the window before the token come again; clients upsert by id,
+                // so a row sent twice is harmless while one committed late is not lost
+                var sinceDate = sinceTicks - DateTime.MinValue.Ticks > ChangeWindow.Ticks
+                    ? new DateTime(sinceTicks) - ChangeWindow
+                    : DateTime.MinValue;
+                query = query.Where(a => (a.UpdatedAt ?? a.CreatedAt) >= sinceDate);
+            }
+
+            var changes = new AppointmentChangesDTO
+            {
+                Upserted = await query.OrderBy(a => a.AppointmentDate).ToDto().ToListAsync(),
+                Token = token,
+                Reset = reset
+            };
+
+            return Ok(ApiResponse<AppointmentChangesDTO>.SuccessResponse(changes));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error fetching appointment changes");
+            return StatusCode(500, ApiResponse<AppointmentChangesDTO>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while fetching appointment changes"));
+        }
+    }
+
+    [HttpPost]
+    [Authorize(Roles = "Patient,Clerk")]
+    public async Task<ActionResult<ApiResponse<AppointmentDTO>>> CreateAppointment(
+        [FromBody] CreateAppointmentRequest request)
+    {
+        try
+        {
+            if (!Guid.TryParse(request.PatientId, out var patientId) || !Guid.TryParse(request.DoctorId, out var doctorId))
+            {
+                return BadRequest(ApiResponse<AppointmentDTO>.ErrorResponse(
+                    "INVALID_ID", "Invalid patient or doctor ID"));
+            }
+
+            // Patients book for themselves only
+            if (GetUserRole() == "Patient" && GetRoleSpecificId() != patientId.ToString())
+            {
+                return Forbid();
+            }
+
+            if (!await _context.Patients.AnyAsync(p => p.Id == patientId)
+                || !await _context.Doctors.AnyAsync(d => d.Id == doctorId))
+            {
+                return NotFound(ApiResponse<AppointmentDTO>.ErrorResponse(
+                    "NOT_FOUND", "Patient or doctor not found"));
+            }
+
+            var appointment = new Appointment
+            {
+                PatientId = patientId,
+                DoctorId = doctorId,
+                AppointmentDate = request.AppointmentDate,
+                Reason = request.Reason,
+                Notes = request.Notes,
+                CreatedBy = Guid.TryParse(GetUserId(), out var userId) ? userId : Guid.Empty
+            };
+            _context.Appointments.Add(appointment);
+            await _context.SaveChangesAsync();
+
+            var dto = await LoadDtoAsync(appointment.Id);
+            _events.Publish(AppointmentEventHub.Created, dto);
+
+            return StatusCode(201, ApiResponse<AppointmentDTO>.SuccessResponse(dto));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error creating appointment");
+            return StatusCode(500, ApiResponse<AppointmentDTO>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while creating the appointment"));
+        }
+    }
+
+    [HttpPut("{id}/complete")]
+    [Authorize(Roles = "Doctor")]
+    public async Task<ActionResult<ApiResponse<AppointmentDTO>>> CompleteAppointment(
+        string id, [FromBody] CompleteAppointmentRequest request)
+    {
+        try
+        {
+            var appointment = await FindScheduledForCallerAsync(id);
+            if (appointment.Result != null)
+            {
+                return appointment.Result;
+            }
+
+            appointment.Value!.Status = AppointmentStatus.Completed;
+            appointment.Value.DoctorNotes = request.DoctorNotes;
+            appointment.Value.UpdatedAt = DateTime.UtcNow;
+            await _context.SaveChangesAsync();
+
+            var dto = await LoadDtoAsync(appointment.Value.Id);
+            _events.Publish(AppointmentEventHub.Completed, dto);
+
+            return Ok(ApiResponse<AppointmentDTO>.SuccessResponse(dto));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error completing appointment");
+            return StatusCode(500, ApiResponse<AppointmentDTO>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while completing the appointment"));
+        }
+    }
+
+    /// <summary>
+    /// Cancels rather than deletes, so delta sync clients see the change.
+    /// </summary>
+    [HttpDelete("{id}")]
+    [Authorize(Roles = "Patient,Clerk")]
+    public async Task<ActionResult<ApiResponse<AppointmentDTO>>> CancelAppointment(string id)
+    {
+        try
+        {
+            var appointment = await FindScheduledForCallerAsync(id);
+            if (appointment.Result != null)
+            {
+                return appointment.Result;
+            }
+
+            var now = DateTime.UtcNow;
+            appointment.Value!.Status = AppointmentStatus.Cancelled;
+            appointment.Value.CancelledAt = now;
+            appointment.Value.UpdatedAt = now;
+            await _context.SaveChangesAsync();
+
+            var dto = await LoadDtoAsync(appointment.Value.Id);
+            _events.Publish(AppointmentEventHub.Cancelled, dto);
+
+            return Ok(ApiResponse<AppointmentDTO>.SuccessResponse(dto));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error cancelling appointment");
+            return StatusCode(500, ApiResponse<AppointmentDTO>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while cancelling the appointment"));
+        }
+    }
+
+    /// <summary>
+    /// Server-Sent Events stream of the appointment changes the caller can see: created,
+    /// completed and cancelled, each carrying the appointment as it now is. A client that
+    /// reconnects with Last-Event-ID gets what it missed, or a reset event when that is no
+    /// longer known and it must reload. A comment line is sent every 15 seconds when idle.
+    /// </summary>
+    [HttpGet("events")]
+    public async Task StreamEvents(CancellationToken cancellationToken)
+    {
+        var lastEventId = Request.Headers["Last-Event-ID"].FirstOrDefault();
+        using var subscription = _events.Subscribe(CallerFilter(), lastEventId);
+
+        Response.ContentType = "text/event-stream";
+        Response.Headers.CacheControl = "no-cache";
+        // Stops reverse proxies from buffering the stream
+        Response.Headers["X-Accel-Buffering"] = "no";
+
+        try
+        {
+            if (subscription.MissedEvents)
+            {
+                await WriteEventAsync(_events.FormatId(subscription.StartId), "reset", "{}", cancellationToken);
+            }
+            else if (string.IsNullOrEmpty(lastEventId))
+            {
+                // Gives a new client an id to resume from
+                await WriteEventAsync(_events.FormatId(subscription.StartId), "ready", "{}", cancellationToken);
+            }
+
+            foreach (var evt in subscription.Replay)
+            {
+                await WriteEventAsync(evt, cancellationToken);
+            }
+            await Response.Body.FlushAsync(cancellationToken);
+
+            var reader = subscription.Reader;
+            while (!cancellationToken.IsCancellationRequested)
+            {
+                using var idle = CancellationTokenSource.CreateLinkedTokenSource(cancellationToken);
+                idle.CancelAfter(HeartbeatInterval);
+                try
+                {
+                    if (!await reader.WaitToReadAsync(idle.Token))
+                    {
+                        // Closed by the hub because this client fell behind; it reconnects and replays
+                        break;
+                    }
+                }
+                catch (OperationCanceledException) when (!cancellationToken.IsCancellationRequested)
+                {
+                    await Response.WriteAsync(": ping\n\n", cancellationToken);
+                    await Response.Body.FlushAsync(cancellationToken);
+                    continue;
+                }
+
+                while (reader.TryRead(out var evt))
+                {
+                    await WriteEventAsync(evt, cancellationToken);
+                }
+                await Response.Body.FlushAsync(cancellationToken);
+            }
+        }
+        catch (OperationCanceledException)
+        {
+            // Client went away
+        }
+    }
+
+    private Task WriteEventAsync(AppointmentEventDTO evt, CancellationToken cancellationToken)
+    {
+        return WriteEventAsync(_events.FormatId(evt.Id), evt.Type,
+            JsonSerializer.Serialize(evt, _jsonOptions), cancellationToken);
+    }
+
+    private Task WriteEventAsync(string id, string type, string data, CancellationToken cancellationToken)
+    {
+        return Response.WriteAsync($"id: {id}\nevent: {type}\ndata: {data}\n\n", cancellationToken);
+    }
+
+    // Same visibility as ScopeToCaller, for events that are not in a query
+    private Func<AppointmentDTO, bool> CallerFilter()
+    {
+        var role = GetUserRole();
+        if (role == "Clerk")
+        {
+            return _ => true;
+        }
+
+        var roleSpecificId = GetRoleSpecificId();
+        return role switch
+        {
+            "Doctor" => a => a.DoctorId == roleSpecificId,
+            "Patient" => a => a.PatientId == roleSpecificId,
+            _ => _ => false
+        };
+    }
+
+    private Task<AppointmentDTO> LoadDtoAsync(Guid id)
+    {
+        return _context.Appointments.AsNoTracking().Where(a => a.Id == id).ToDto().FirstAsync();
+    }
+
+    // Only scheduled appointments can be completed or cancelled, and only by someone who sees them
+    private async Task<ActionResult<Appointment>> FindScheduledForCallerAsync(string id)
+    {
+        if (!Guid.TryParse(id, out var appointmentId))
+        {
+            return BadRequest(ApiResponse<AppointmentDTO>.ErrorResponse(
+                "INVALID_ID", "Invalid appointment ID"));
+        }
+
+        var appointment = await ScopeToCaller(_context.Appointments).FirstOrDefaultAsync(a => a.Id == appointmentId);
+        if (appointment == null)
+        {
+            return NotFound(ApiResponse<AppointmentDTO>.ErrorResponse(
+                "NOT_FOUND", "Appointment not found"));
+        }
+
+        if (appointment.Status != AppointmentStatus.Scheduled)
+        {
+            return Conflict(ApiResponse<AppointmentDTO>.ErrorResponse(
+                "INVALID_STATUS", "Only scheduled appointments can be changed"));
+        }
+
+        return appointment;
+    }
+
+    // Doctors see their own agenda, patients their own visits, clerks the whole clinic
+    private IQueryable<Appointment> ScopeToCaller(IQueryable<Appointment> query)
+    {
+        var role = GetUserRole();
+        if (role == "Clerk")
+        {
+            return query;
+        }
+
+        if (!Guid.TryParse(GetRoleSpecificId(), out var roleSpecificId))
+        {
+            return query.Where(a => false);
+        }
+
+        return role switch
+        {
+            "Doctor" => query.Where(a => a.DoctorId == roleSpecificId),
+            "Patient" => query.Where(a => a.PatientId == roleSpecificId),
+            _ => query.Where(a => false)
+        };
+    }
+}
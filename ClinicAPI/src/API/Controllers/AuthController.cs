@@ -67,6 +67,31 @@ public class AuthController : ControllerBase
         }
     }
 
+    [HttpPost("refresh")]
+    public async Task<ActionResult<LoginResponse>> Refresh([FromBody] RefreshTokenRequest request)
+    {
+        try
+        {
+            var response = await _authService.RefreshAsync(request);
+
+            if (!response.Success)
+            {
+                return Unauthorized(response);
+            }
+
+            return Ok(response);
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error during token refresh");
+            return StatusCode(500, new LoginResponse
+            {
+                Success = false,
+                Error = "An error occurred during token refresh"
+            });
+        }
+    }
+
     [HttpGet("health")]
     public IActionResult Health()
     {
@@ -1,5 +1,6 @@
 using API.Data;
 using API.DTOs;
+using API.Filters;
 using API.Models;
 using Microsoft.AspNetCore.Authorization;
 using Microsoft.AspNetCore.Mvc;
@@ -20,6 +21,7 @@ public class ClerkController : ControllerBase
     }
 
     [HttpGet("dashboard")]
+    [ConditionalGet]
     public async Task<ActionResult<ApiResponse<object>>> GetDashboard()
     {
         var today = DateTime.UtcNow.Date;
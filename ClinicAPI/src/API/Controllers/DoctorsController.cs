@@ -1,5 +1,6 @@
 using API.Data;
 using API.DTOs;
+using API.Filters;
 using API.Models;
 using Microsoft.AspNetCore.Authorization;
 using Microsoft.AspNetCore.Mvc;
@@ -12,13 +13,18 @@ namespace API.Controllers;
 public class DoctorsController : ControllerBase
 {
     private readonly ClinicDbContext _context;
+    private readonly ILogger<DoctorsController> _logger;
 
-    public DoctorsController(ClinicDbContext context)
+    public DoctorsController(ClinicDbContext context, ILogger<DoctorsController> logger)
     {
         _context = context;
+        _logger = logger;
     }
 
+    private string GetRoleSpecificId() => User.FindFirst("RoleSpecificId")?.Value ?? string.Empty;
+
     [HttpGet]
+    [ConditionalGet]
     public async Task<ActionResult<ApiResponse<object>>> GetDoctors()
     {
         var doctors = await _context.Doctors
@@ -33,4 +39,37 @@ public class DoctorsController : ControllerBase
 
         return Ok(ApiResponse<object>.SuccessResponse(doctors));
     }
+
+    /// <summary>
+    /// The calling doctor's patients, one row each with its visit count, sorted by name and
+    /// keyset-paginated like appointment pages.
+    /// </summary>
+    [HttpGet("me/patients")]
+    [Authorize(Roles = "Doctor")]
+    public async Task<ActionResult<ApiResponse<CursorPage<DoctorPatientDTO>>>> GetMyPatients(
+        [FromQuery] string? cursor, [FromQuery] int? limit)
+    {
+        try
+        {
+            if (!Guid.TryParse(GetRoleSpecificId(), out var doctorId))
+            {
+                return Forbid();
+            }
+
+            var page = await _context.GetDoctorPatientsPageAsync(doctorId, cursor, limit);
+
+            return Ok(ApiResponse<CursorPage<DoctorPatientDTO>>.SuccessResponse(page));
+        }
+        catch (ArgumentException)
+        {
+            return BadRequest(ApiResponse<CursorPage<DoctorPatientDTO>>.ErrorResponse(
+                "INVALID_CURSOR", "Invalid pagination cursor"));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error fetching doctor patients");
+            return StatusCode(500, ApiResponse<CursorPage<DoctorPatientDTO>>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while fetching patients"));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 using API.Data;
 using API.DTOs;
+using API.Filters;
 using API.Models;
 using Microsoft.AspNetCore.Authorization;
 using Microsoft.AspNetCore.Mvc;
@@ -24,8 +25,48 @@ public class PatientsController : ControllerBase
 
     private string GetUserId() => User.FindFirst(ClaimTypes.NameIdentifier)?.Value ?? string.Empty;
     private string GetUserRole() => User.FindFirst(ClaimTypes.Role)?.Value ?? string.Empty;
+    private string GetRoleSpecificId() => User.FindFirst("RoleSpecificId")?.Value ?? string.Empty;
+
+    /// <summary>
+    /// Typeahead over patient names. Doctors search the patients they have seen, clerks the
+    /// whole clinic.
+    /// </summary>
+    [HttpGet("search")]
+    [Authorize(Roles = "Doctor,Clerk")]
+    public async Task<ActionResult<ApiResponse<List<DoctorPatientDTO>>>> SearchPatients(
+        [FromQuery] string? q, [FromQuery] int? limit)
+    {
+        try
+        {
+            if (string.IsNullOrWhiteSpace(q))
+            {
+                return Ok(ApiResponse<List<DoctorPatientDTO>>.SuccessResponse(new List<DoctorPatientDTO>()));
+            }
+
+            Guid? doctorId = null;
+            if (GetUserRole() == "Doctor")
+            {
+                if (!Guid.TryParse(GetRoleSpecificId(), out var id))
+                {
+                    return Forbid();
+                }
+                doctorId = id;
+            }
+
+            var patients = await _context.SearchPatientsAsync(doctorId, q, limit);
+
+            return Ok(ApiResponse<List<DoctorPatientDTO>>.SuccessResponse(patients));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error searching patients");
+            return StatusCode(500, ApiResponse<List<DoctorPatientDTO>>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while searching patients"));
+        }
+    }
 
     [HttpGet("{id}")]
+    [ConditionalGet]
     public async Task<ActionResult<ApiResponse<PatientDTO>>> GetPatient(string id)
     {
         try
@@ -59,22 +100,7 @@ public class PatientsController : ControllerBase
                 }
             }
 
-            var dto = new PatientDTO
-            {
-                Id = patient.Id.ToString(),
-                Email = patient.User.Email,
-                FirstName = patient.User.FirstName,
-                LastName = patient.User.LastName,
-                Phone = patient.User.Phone ?? "",
-                DateOfBirth = patient.DateOfBirth,
-                Address = patient.Address,
-                EmergencyContactName = patient.EmergencyContactName,
-                EmergencyContactPhone = patient.EmergencyContactPhone,
-                DoctorNotes = patient.DoctorNotes,
-                RegistrationDate = patient.RegistrationDate
-            };
-
-            return Ok(ApiResponse<PatientDTO>.SuccessResponse(dto));
+            return Ok(ApiResponse<PatientDTO>.SuccessResponse(ToDto(patient)));
         }
         catch (Exception ex)
         {
@@ -84,6 +110,120 @@ public class PatientsController : ControllerBase
         }
     }
 
+    /// <summary>
+    /// The profile, the first page of the history and the notes in one response, so the
+    /// dossier screen opens in a single round trip. Same access rules as the separate endpoints.
+    /// </summary>
+    [HttpGet("{id}/dossier")]
+    [ConditionalGet]
+    public async Task<ActionResult<ApiResponse<PatientDossierDTO>>> GetPatientDossier(
+        string id, [FromQuery] int? limit)
+    {
+        try
+        {
+            if (!Guid.TryParse(id, out var patientId))
+            {
+                return BadRequest(ApiResponse<PatientDossierDTO>.ErrorResponse(
+                    "INVALID_ID", "Invalid patient ID"));
+            }
+
+            var patient = await _context.Patients
+                .AsNoTracking()
+                .Include(p => p.User)
+                .FirstOrDefaultAsync(p => p.Id == patientId);
+
+            if (patient == null)
+            {
+                return NotFound(ApiResponse<PatientDossierDTO>.ErrorResponse(
+                    "NOT_FOUND", "Patient not found"));
+            }
+
+            var role = GetUserRole();
+            if (role == "Patient")
+            {
+                if (!Guid.TryParse(GetUserId(), out var userGuid) || userGuid != patient.UserId)
+                {
+                    return Forbid();
+                }
+            }
+
+            var appointments = await _context.Appointments
+                .AsNoTracking()
+                .Where(a => a.PatientId == patientId)
+                .ToCursorPageAsync(null, limit);
+
+            var dossier = new PatientDossierDTO
+            {
+                Patient = ToDto(patient),
+                Appointments = appointments,
+                // Same rule as GetPatientNotes
+                Notes = role == "Doctor" || role == "Clerk" ? patient.DoctorNotes ?? "" : null
+            };
+
+            return Ok(ApiResponse<PatientDossierDTO>.SuccessResponse(dossier));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error fetching patient dossier");
+            return StatusCode(500, ApiResponse<PatientDossierDTO>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while fetching patient dossier"));
+        }
+    }
+
+    /// <summary>
+    /// One patient's appointments, newest first, keyset-paginated
+    /// </summary>
+    [HttpGet("{id}/appointments")]
+    public async Task<ActionResult<ApiResponse<CursorPage<AppointmentDTO>>>> GetPatientAppointments(
+        string id, [FromQuery] string? cursor, [FromQuery] int? limit)
+    {
+        try
+        {
+            if (!Guid.TryParse(id, out var patientId))
+            {
+                return BadRequest(ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                    "INVALID_ID", "Invalid patient ID"));
+            }
+
+            var patient = await _context.Patients
+                .AsNoTracking()
+                .FirstOrDefaultAsync(p => p.Id == patientId);
+
+            if (patient == null)
+            {
+                return NotFound(ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                    "NOT_FOUND", "Patient not found"));
+            }
+
+            // Same rule as GetPatient: patients may only read their own history
+            if (GetUserRole() == "Patient")
+            {
+                if (!Guid.TryParse(GetUserId(), out var userGuid) || userGuid != patient.UserId)
+                {
+                    return Forbid();
+                }
+            }
+
+            var page = await _context.Appointments
+                .AsNoTracking()
+                .Where(a => a.PatientId == patientId)
+                .ToCursorPageAsync(cursor, limit);
+
+            return Ok(ApiResponse<CursorPage<AppointmentDTO>>.SuccessResponse(page));
+        }
+        catch (ArgumentException)
+        {
+            return BadRequest(ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                "INVALID_CURSOR", "Invalid pagination cursor"));
+        }
+        catch (Exception ex)
+        {
+            _logger.LogError(ex, "Error fetching patient appointments");
+            return StatusCode(500, ApiResponse<CursorPage<AppointmentDTO>>.ErrorResponse(
+                "SERVER_ERROR", "An error occurred while fetching patient appointments"));
+        }
+    }
+
     [HttpGet("{id}/notes")]
     [Authorize(Roles = "Doctor,Clerk")]
     public async Task<ActionResult<ApiResponse<string>>> GetPatientNotes(string id)
@@ -147,4 +287,19 @@ public class PatientsController : ControllerBase
                 "SERVER_ERROR", "An error occurred while updating patient notes"));
         }
     }
+
+    private static PatientDTO ToDto(Patient patient) => new PatientDTO
+    {
+        Id = patient.Id.ToString(),
+        Email = patient.User.Email,
+        FirstName = patient.User.FirstName,
+        LastName = patient.User.LastName,
+        Phone = patient.User.Phone ?? "",
+        DateOfBirth = patient.DateOfBirth,
+        Address = patient.Address,
+        EmergencyContactName = patient.EmergencyContactName,
+        EmergencyContactPhone = patient.EmergencyContactPhone,
+        DoctorNotes = patient.DoctorNotes,
+        RegistrationDate = patient.RegistrationDate
+    };
 }
@@ -32,3 +32,20 @@ public class CompleteAppointmentRequest
 {
     public string? DoctorNotes { get; set; }
 }
+
+/// <summary>
+/// Rows changed since a client's change token. Appointments are cancelled rather than
+/// deleted, so cancellations arrive in <see cref="Upserted"/> with a Cancelled status.
+/// </summary>
+public class AppointmentChangesDTO
+{
+    public List<AppointmentDTO> Upserted { get; set; } = new();
+    public List<string> DeletedIds { get; set; } = new();
+    public string Token { get; set; } = string.Empty;
+
+    /// <summary>
+    /// True when the token was missing or unusable: Upserted is then the full list
+    /// and the client must replace its copy instead of merging.
+    /// </summary>
+    public bool Reset { get; set; }
+}
@@ -0,0 +1,14 @@
+namespace API.DTOs;
+
+/// <summary>
+/// One change pushed on /appointments/events: the appointment as it is after the change.
+/// </summary>
+public class AppointmentEventDTO
+{
+    public long Id { get; set; }
+
+    /// <summary>created, completed or cancelled</summary>
+    public string Type { get; set; } = string.Empty;
+
+    public AppointmentDTO? Appointment { get; set; }
+}
@@ -0,0 +1,11 @@
+namespace API.DTOs;
+
+/// <summary>
+/// One page of a keyset-paginated list. Pass <see cref="NextCursor"/> back to get the following page.
+/// </summary>
+public class CursorPage<T>
+{
+    public List<T> Items { get; set; } = new();
+    public string? NextCursor { get; set; }
+    public bool HasMore { get; set; }
+}
@@ -0,0 +1,15 @@
+namespace API.DTOs;
+
+/// <summary>
+/// A patient row for patient lists and search. For a doctor the counts cover that doctor's
+/// appointments only, for a clerk the whole clinic's
+/// </summary>
+public class DoctorPatientDTO
+{
+    public string Id { get; set; } = string.Empty;
+    public string Name { get; set; } = string.Empty;
+    public int AppointmentCount { get; set; }
+
+    // Most recent appointment that already took place and was not cancelled
+    public DateTime? LastVisit { get; set; }
+}
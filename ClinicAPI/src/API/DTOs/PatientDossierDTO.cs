@@ -0,0 +1,16 @@
+namespace API.DTOs;
+
+/// <summary>
+/// What the dossier screen shows, in one response: the profile, the first page of the
+/// visit history and the notes.
+/// </summary>
+public class PatientDossierDTO
+{
+    public PatientDTO Patient { get; set; } = new();
+
+    /// <summary>Same page as GET /patients/{id}/appointments without a cursor; pass NextCursor there to continue.</summary>
+    public CursorPage<AppointmentDTO> Appointments { get; set; } = new();
+
+    /// <summary>Null for patients, who may not read them</summary>
+    public string? Notes { get; set; }
+}
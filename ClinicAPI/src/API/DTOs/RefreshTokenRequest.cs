@@ -0,0 +1,9 @@
+using System.ComponentModel.DataAnnotations;
+
+namespace API.DTOs;
+
+public class RefreshTokenRequest
+{
+    [Required]
+    public string Token { get; set; } = string.Empty;
+}
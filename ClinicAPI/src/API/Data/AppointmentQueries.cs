@@ -0,0 +1,120 @@
+using System.Globalization;
+using System.Text;
+using API.DTOs;
+using API.Models;
+using Microsoft.EntityFrameworkCore;
+
+namespace API.Data;
+
+/// <summary>
+/// Projections and keyset pagination shared by the endpoints that return appointments
+/// </summary>
+public static class AppointmentQueries
+{
+    public const int DefaultPageSize = 50;
+    public const int MaxPageSize = 200;
+
+    public static IQueryable<AppointmentDTO> ToDto(this IQueryable<Appointment> query)
+    {
+        return query.Select(a => new AppointmentDTO
+        {
+            Id = a.Id.ToString(),
+            PatientId = a.PatientId.ToString(),
+            DoctorId = a.DoctorId.ToString(),
+            AppointmentDate = a.AppointmentDate,
+            Reason = a.Reason,
+            Notes = a.Notes,
+            DoctorNotes = a.DoctorNotes,
+            Status = a.Status.ToString(),
+            PatientName = a.Patient.User.FirstName + " " + a.Patient.User.LastName,
+            DoctorName = a.Doctor.User.FirstName + " " + a.Doctor.User.LastName,
+            DoctorSpecialization = a.Doctor.Specialization
+        });
+    }
+
+    /// <summary>
+    /// Returns appointments newest first, starting after <paramref name="cursor"/>.
+    /// The cursor holds the date of the last row sent plus how many rows with that exact
+    /// date were already sent, so ties are skipped without comparing GUIDs in SQL.
+    /// </summary>
+    public static async Task<CursorPage<AppointmentDTO>> ToCursorPageAsync(
+        this IQueryable<Appointment> query, string? cursor, int? limit)
+    {
+        var pageSize = Math.Clamp(limit ?? DefaultPageSize, 1, MaxPageSize);
+        var skip = 0;
+        DateTime? lastDate = null;
+
+        if (!string.IsNullOrEmpty(cursor))
+        {
+            if (!TryDecodeCursor(cursor, out var date, out skip))
+            {
+                throw new ArgumentException("Invalid cursor", nameof(cursor));
+            }
+            lastDate = date;
+            query = query.Where(a => a.AppointmentDate <= date);
+        }
+
+        var rows = await query
+            .OrderByDescending(a => a.AppointmentDate)
+            .ThenBy(a => a.Id)
+            .Skip(skip)
+            .Take(pageSize + 1)
+            .ToDto()
+            .ToListAsync();
+
+        var hasMore = rows.Count > pageSize;
+        if (hasMore)
+        {
+            rows.RemoveAt(rows.Count - 1);
+        }
+
+        string? nextCursor = null;
+        if (hasMore)
+        {
+            var last = rows[^1].AppointmentDate;
+            var ties = rows.Count(r => r.AppointmentDate == last);
+            if (lastDate == last)
+            {
+                ties += skip;
+            }
+            nextCursor = EncodeCursor(last, ties);
+        }
+
+        return new CursorPage<AppointmentDTO>
+        {
+            Items = rows,
+            NextCursor = nextCursor,
+            HasMore = hasMore
+        };
+    }
+
+    private static string EncodeCursor(DateTime date, int skip)
+    {
+        var raw = date.Ticks.ToString(CultureInfo.InvariantCulture) + ":" + skip.ToString(CultureInfo.InvariantCulture);
+        return Convert.ToBase64String(Encoding.UTF8.GetBytes(raw));
+    }
+
+    private static bool TryDecodeCursor(string cursor, out DateTime date, out int skip)
+    {
+        date = default;
+        skip = 0;
+        try
+        {
+            var parts = Encoding.UTF8.GetString(Convert.FromBase64String(cursor)).Split(':');
+            if (parts.Length != 2
+                || !long.TryParse(parts[0], NumberStyles.Integer, CultureInfo.InvariantCulture, out var ticks)
+                || !int.TryParse(parts[1], NumberStyles.Integer, CultureInfo.InvariantCulture, out skip)
+                || ticks < DateTime.MinValue.Ticks || ticks > DateTime.MaxValue.Ticks
+                || skip < 0)
+            {
+                return false;
+            }
+            date = new DateTime(ticks);
+            return true;
+        }
+        catch (FormatException)
+        {
+            return false;
+        }
+    }
+}
@@ -60,5 +60,9 @@ public class ClinicDbContext : DbContext
 
         modelBuilder.Entity<Appointment>()
             .HasIndex(a => a.Status);
+
+        // Per-patient history is read newest first
+        modelBuilder.Entity<Appointment>()
+            .HasIndex(a => new { a.PatientId, a.AppointmentDate });
     }
 }
@@ -0,0 +1,171 @@
+using System.Globalization;
+using System.Text;
+using API.DTOs;
+using API.Models;
+using Microsoft.EntityFrameworkCore;
+
+namespace API.Data;
+
+/// <summary>
+/// Per-doctor patient list aggregated in SQL, so its size follows the number of patients
+/// rather than the number of appointments
+/// </summary>
+public static class DoctorPatientQueries
+{
+    public const int DefaultPageSize = 50;
+    public const int MaxPageSize = 200;
+    public const int DefaultSearchLimit = 20;
+    public const int MaxSearchLimit = 50;
+
+    /// <summary>
+    /// Returns the doctor's patients sorted by name, starting after <paramref name="cursor"/>.
+    /// Like appointment pages, the cursor holds the last name sent plus how many rows with
+    /// that exact name were already sent.
+    /// </summary>
+    public static async Task<CursorPage<DoctorPatientDTO>> GetDoctorPatientsPageAsync(
+        this ClinicDbContext context, Guid doctorId, string? cursor, int? limit)
+    {
+        var pageSize = Math.Clamp(limit ?? DefaultPageSize, 1, MaxPageSize);
+        var now = DateTime.Now;
+
+        var query = context.Appointments
+            .AsNoTracking()
+            .Where(a => a.DoctorId == doctorId)
+            .GroupBy(a => a.PatientId)
+            .Select(g => new
+            {
+                PatientId = g.Key,
+                Count = g.Count(),
+                LastVisit = g.Max(a => a.AppointmentDate <= now && a.Status != AppointmentStatus.Cancelled
+                    ? (DateTime?)a.AppointmentDate
+                    : null)
+            })
+            .Join(context.Patients, s => s.PatientId, p => p.Id, (s, p) => new DoctorPatientDTO
+            {
+                Id = p.Id.ToString(),
+                Name = p.User.FirstName + " " + p.User.LastName,
+                AppointmentCount = s.Count,
+                LastVisit = s.LastVisit
+            });
+
+        var skip = 0;
+        string? lastName = null;
+        if (!string.IsNullOrEmpty(cursor))
+        {
+            if (!TryDecodeCursor(cursor, out var name, out skip))
+            {
+                throw new ArgumentException("Invalid cursor", nameof(cursor));
+            }
+            lastName = name;
+            query = query.Where(d => string.Compare(d.Name, name) >= 0);
+        }
+
+        var rows = await query
+            .OrderBy(d => d.Name)
+            .ThenBy(d => d.Id)
+            .Skip(skip)
+            .Take(pageSize + 1)
+            .ToListAsync();
+
+        var hasMore = rows.Count > pageSize;
+        if (hasMore)
+        {
+            rows.RemoveAt(rows.Count - 1);
+        }
+
+        string? nextCursor = null;
+        if (hasMore)
+        {
+            var last = rows[^1].Name;
+            var ties = rows.Count(r => r.Name == last);
+            if (lastName == last)
+            {
+                ties += skip;
+            }
+            nextCursor = EncodeCursor(last, ties);
+        }
+
+        return new CursorPage<DoctorPatientDTO>
+        {
+            Items = rows,
+            NextCursor = nextCursor,
+            HasMore = hasMore
+        };
+    }
+
+    /// <summary>
+    /// Typeahead: patients whose first name, last name or full name (either order) starts with
+    /// <paramref name="term"/>, sorted by name. A doctor only finds patients they have seen and
+    /// counts only their own appointments; with a null <paramref name="doctorId"/> (clerks) the
+    /// whole clinic is searched, patients without appointments included.
+    /// </summary>
+    public static Task<List<DoctorPatientDTO>> SearchPatientsAsync(
+        this ClinicDbContext context, Guid? doctorId, string term, int? limit)
+    {
+        var take = Math.Clamp(limit ?? DefaultSearchLimit, 1, MaxSearchLimit);
+        var pattern = EscapeLike(term.Trim()) + "%";
+        var now = DateTime.Now;
+
+        var patients = context.Patients.AsNoTracking();
+        if (doctorId.HasValue)
+        {
+            patients = patients.Where(p => p.Appointments.Any(a => a.DoctorId == doctorId.Value));
+        }
+
+        return patients
+            .Where(p => EF.Functions.Like(p.User.FirstName, pattern, "\\")
+                || EF.Functions.Like(p.User.LastName, pattern, "\\")
+                || EF.Functions.Like(p.User.FirstName + " " + p.User.LastName, pattern, "\\")
+                || EF.Functions.Like(p.User.LastName + " " + p.User.FirstName, pattern, "\\"))
+            .Select(p => new DoctorPatientDTO
+            {
+                Id = p.Id.ToString(),
+                Name = p.User.FirstName + " " + p.User.LastName,
+                AppointmentCount = p.Appointments.Count(a => !doctorId.HasValue || a.DoctorId == doctorId.Value),
+                LastVisit = p.Appointments
+                    .Where(a => (!doctorId.HasValue || a.DoctorId == doctorId.Value)
+                        && a.AppointmentDate <= now && a.Status != AppointmentStatus.Cancelled)
+                    .Max(a => (DateTime?)a.AppointmentDate)
+            })
+            .OrderBy(d => d.Name)
+            .ThenBy(d => d.Id)
+            .Take(take)
+            .ToListAsync();
+    }
+
+    // User input is matched literally: % and _ are not wildcards
+    private static string EscapeLike(string term)
+    {
+        return term.Replace("\\", "\\\\").Replace("%", "\\%").Replace("_", "\\_");
+    }
+
+    // The count goes first so names containing ':' need no escaping
+    private static string EncodeCursor(string name, int skip)
+    {
+        var raw = skip.ToString(CultureInfo.InvariantCulture) + ":" + name;
+        return Convert.ToBase64String(Encoding.UTF8.GetBytes(raw));
+    }
+
+    private static bool TryDecodeCursor(string cursor, out string name, out int skip)
+    {
+        name = string.Empty;
+        skip = 0;
+        try
+        {
+            var raw = Encoding.UTF8.GetString(Convert.FromBase64String(cursor));
+            var separator = raw.IndexOf(':');
+            if (separator <= 0
+                || !int.TryParse(raw.AsSpan(0, separator), NumberStyles.Integer, CultureInfo.InvariantCulture, out skip)
+                || skip < 0)
+            {
+                return false;
+            }
+            name = raw[(separator + 1)..];
+            return true;
+        }
+        catch (FormatException)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+using System.Security.Cryptography;
+using System.Text.Json;
+using Microsoft.AspNetCore.Mvc;
+using Microsoft.AspNetCore.Mvc.Filters;
+using Microsoft.Extensions.Options;
+using Microsoft.Net.Http.Headers;
+
+namespace API.Filters;
+
+/// <summary>
+/// Adds an ETag (hash of the JSON body) to successful GET responses and answers
+/// 304 Not Modified when the client's If-None-Match still matches.
+/// Responses are marked private, no-cache: clients may store them but must revalidate,
+/// so authorization is checked on every request.
+/// </summary>
+[AttributeUsage(AttributeTargets.Method)]
+public class ConditionalGetAttribute : Attribute, IAsyncResultFilter
+{
+    public async Task OnResultExecutionAsync(ResultExecutingContext context, ResultExecutionDelegate next)
+    {
+        var request = context.HttpContext.Request;
+        if (!HttpMethods.IsGet(request.Method)
+            || context.Result is not ObjectResult result
+            || (result.StatusCode ?? StatusCodes.Status200OK) != StatusCodes.Status200OK)
+        {
+            await next();
+            return;
+        }
+
+        // Serialize once with the app's JSON settings; the same bytes are hashed and sent
+        var jsonOptions = context.HttpContext.RequestServices
+            .GetRequiredService<IOptions<JsonOptions>>().Value.JsonSerializerOptions;
+        var body = JsonSerializer.SerializeToUtf8Bytes(result.Value, jsonOptions);
+        var etag = new EntityTagHeaderValue("\"" + Convert.ToBase64String(SHA256.HashData(body)) + "\"");
+
+        var response = context.HttpContext.Response;
+        response.Headers.ETag = etag.ToString();
+        response.Headers.CacheControl = "private, no-cache";
+
+        var ifNoneMatch = request.GetTypedHeaders().IfNoneMatch;
+        if (ifNoneMatch != null && ifNoneMatch.Any(tag => tag.Compare(etag, useStrongComparison: false)))
+        {
+            context.Result = new StatusCodeResult(StatusCodes.Status304NotModified);
+        }
+        else
+        {
+            context.Result = new FileContentResult(body, "application/json; charset=utf-8");
+        }
+
+        await next();
+    }
+}
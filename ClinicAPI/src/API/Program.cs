@@ -19,6 +19,8 @@ builder.Services.AddDbContext<ClinicDbContext>(options =>
 // Register custom services
 builder.Services.AddScoped<JwtService>();
 builder.Services.AddScoped<AuthService>();
+// One event hub per process: every request publishes to and streams from the same instance
+builder.Services.AddSingleton<AppointmentEventHub>();
 
 // Configure JWT Authentication
 var jwtSecret = builder.Configuration["Jwt:Secret"] ?? throw new InvalidOperationException("JWT Secret not configured");
@@ -127,6 +129,12 @@ using (var scope = app.Services.CreateScope())
         var context = services.GetRequiredService<ClinicDbContext>();
         context.Database.EnsureCreated();
 
+        // EnsureCreated only builds the schema of a new database; indexes added to the model
+        // later are created here for existing ones (same name as EnsureCreated gives them)
+        context.Database.ExecuteSqlRaw(
+            "CREATE INDEX IF NOT EXISTS \"IX_Appointments_PatientId_AppointmentDate\" " +
+            "ON \"Appointments\" (\"PatientId\", \"AppointmentDate\")");
+
         // Seed data using factory pattern
         DataSeeder.SeedDataAsync(context).GetAwaiter().GetResult();
 
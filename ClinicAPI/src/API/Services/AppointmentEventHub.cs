@@ -0,0 +1,148 @@
+using System.Globalization;
+using System.Threading.Channels;
+using API.DTOs;
+
+namespace API.Services;
+
+/// <summary>
+/// Fans appointment changes out to the clients listening on /appointments/events.
+/// The last <see cref="ReplaySize"/> events are kept so a client reconnecting with the id of
+/// the last event it saw gets what it missed; older gaps, or ids from before a restart, are
+/// reported so it reloads instead. Registered as a singleton.
+/// </summary>
+public class AppointmentEventHub
+{
+    public const string Created = "created";
+    public const string Completed = "completed";
+    public const string Cancelled = "cancelled";
+
+    private const int ReplaySize = 256;
+    // A subscriber this far behind is dropped; it reconnects and replays or reloads
+    private const int SubscriberBuffer = 64;
+
+    // Event ids are "run:sequence", so ids handed out before a restart are recognised
+    private readonly string _run = DateTime.UtcNow.Ticks.ToString("x", CultureInfo.InvariantCulture);
+    private readonly object _lock = new();
+    private readonly LinkedList<AppointmentEventDTO> _recent = new();
+    private readonly List<Subscription> _subscribers = new();
+    private long _lastId;
+
+    public void Publish(string type, AppointmentDTO appointment)
+    {
+        lock (_lock)
+        {
+            var evt = new AppointmentEventDTO
+            {
+                Id = ++_lastId,
+                Type = type,
+                Appointment = appointment
+            };
+
+            _recent.AddLast(evt);
+            if (_recent.Count > ReplaySize)
+            {
+                _recent.RemoveFirst();
+            }
+
+            foreach (var subscriber in _subscribers)
+            {
+                subscriber.Offer(evt);
+            }
+        }
+    }
+
+    public string FormatId(long id) => _run + ":" + id.ToString(CultureInfo.InvariantCulture);
+
+    /// <summary>
+    /// Starts receiving the events <paramref name="filter"/> accepts. With
+    /// <paramref name="lastEventId"/> the events after it are put in
+    /// <see cref="Subscription.Replay"/>; when some of them are no longer kept,
+    /// <see cref="Subscription.MissedEvents"/> is set instead.
+    /// </summary>
+    public Subscription Subscribe(Func<AppointmentDTO, bool> filter, string? lastEventId)
+    {
+        lock (_lock)
+        {
+            var subscription = new Subscription(this, filter, _lastId);
+
+            if (!string.IsNullOrEmpty(lastEventId))
+            {
+                var parts = lastEventId.Split(':');
+                var oldest = _recent.First?.Value.Id ?? _lastId + 1;
+                if (parts.Length != 2 || parts[0] != _run
+                    || !long.TryParse(parts[1], NumberStyles.None, CultureInfo.InvariantCulture, out var seen)
+                    || seen > _lastId || seen < oldest - 1)
+                {
+                    subscription.MissedEvents = true;
+                }
+                else
+                {
+                    subscription.Replay = _recent
+                        .Where(e => e.Id > seen && e.Appointment != null && filter(e.Appointment))
+                        .ToList();
+                }
+            }
+
+            _subscribers.Add(subscription);
+            return subscription;
+        }
+    }
+
+    private void Remove(Subscription subscription)
+    {
+        lock (_lock)
+        {
+            _subscribers.Remove(subscription);
+        }
+    }
+
+    public sealed class Subscription : IDisposable
+    {
+        private readonly AppointmentEventHub _hub;
+        private readonly Func<AppointmentDTO, bool> _filter;
+        private readonly Channel<AppointmentEventDTO> _channel =
+            Channel.CreateBounded<AppointmentEventDTO>(new BoundedChannelOptions(SubscriberBuffer)
+            {
+                SingleReader = true,
+                FullMode = BoundedChannelFullMode.Wait
+            });
+
+        internal Subscription(AppointmentEventHub hub, Func<AppointmentDTO, bool> filter, long startId)
+        {
+            _hub = hub;
+            _filter = filter;
+            StartId = startId;
+        }
+
+        /// <summary>Id of the newest event when subscribing; a new client resumes from it.</summary>
+        public long StartId { get; }
+
+        /// <summary>The client must reload: events it has not seen are no longer kept.</summary>
+        public bool MissedEvents { get; internal set; }
+
+        /// <summary>Events the client missed while disconnected, oldest first; send before <see cref="Reader"/>.</summary>
+        public IReadOnlyList<AppointmentEventDTO> Replay { get; internal set; } = Array.Empty<AppointmentEventDTO>();
+
+        public ChannelReader<AppointmentEventDTO> Reader => _channel.Reader;
+
+        internal void Offer(AppointmentEventDTO evt)
+        {
+            if (evt.Appointment == null || !_filter(evt.Appointment))
+            {
+                return;
+            }
+
+            // Never block the request that published: a subscriber too slow to keep up is closed
+            if (!_channel.Writer.TryWrite(evt))
+            {
+                _channel.Writer.TryComplete();
+            }
+        }
+
+        public void Dispose()
+        {
+            _hub.Remove(this);
+            _channel.Writer.TryComplete();
+        }
+    }
+}
@@ -2,6 +2,8 @@ using API.Data;
 using API.DTOs;
 using API.Models;
 using Microsoft.EntityFrameworkCore;
+using System.IdentityModel.Tokens.Jwt;
+using System.Security.Claims;
 
 namespace API.Services;
 
@@ -46,31 +48,45 @@ public class AuthService
         user.LastLoginAt = DateTime.UtcNow;
         await _context.SaveChangesAsync();
 
-        // Get role-specific ID
-        var roleSpecificId = user.Role switch
+        return CreateSession(user, GetRoleSpecificId(user));
+    }
+
+    /// <summary>
+    /// Issues a new token for the user of a still valid or recently expired one.
+    /// The account is looked up again so a deactivated user cannot keep renewing, and the
+    /// original sign-in time is carried over so renewals stop at Jwt:MaxSessionHours.
+    /// </summary>
+    public async Task<LoginResponse> RefreshAsync(RefreshTokenRequest request)
+    {
+        var principal = _jwtService.ValidateTokenForRefresh(request.Token, out var authTime);
+        var subject = principal?.FindFirst(ClaimTypes.NameIdentifier)?.Value
+            ?? principal?.FindFirst(JwtRegisteredClaimNames.Sub)?.Value;
+
+        if (!Guid.TryParse(subject, out var userId))
         {
-            UserRole.Patient => user.Patient?.Id.ToString() ?? string.Empty,
-            UserRole.Doctor => user.Doctor?.Id.ToString() ?? string.Empty,
-            UserRole.Clerk => user.Clerk?.Id.ToString() ?? string.Empty,
-            _ => string.Empty
-        };
+            return new LoginResponse
+            {
+                Success = false,
+                Error = "Invalid or expired session"
+            };
+        }
 
-        var token = _jwtService.GenerateToken(user, roleSpecificId);
+        var user = await _context.Users
+            .Include(u => u.Patient)
+            .Include(u => u.Doctor)
+            .Include(u => u.Clerk)
+            .FirstOrDefaultAsync(u => u.Id == userId);
 
-        return new LoginResponse
+        if (user == null || !user.IsActive)
         {
-            Success = true,
-            Data = new UserData
+            return new LoginResponse
             {
-                UserId = user.Id.ToString(),
-                FirstName = user.FirstName,
-                LastName = user.LastName,
-                Email = user.Email,
-                Role = user.Role.ToString(),
-                Token = token,
-                RoleSpecificId = roleSpecificId
-            }
-        };
+                Success = false,
+                Error = "Account is inactive"
+            };
+        }
+
+        return CreateSession(user, GetRoleSpecificId(user), authTime);
     }
 
     public async Task<LoginResponse> RegisterAsync(RegisterRequest request)
@@ -138,7 +154,20 @@ public class AuthService
                 break;
         }
 
-        var token = _jwtService.GenerateToken(user, roleSpecificId);
+        return CreateSession(user, roleSpecificId);
+    }
+
+    private static string GetRoleSpecificId(User user) => user.Role switch
+    {
+        UserRole.Patient => user.Patient?.Id.ToString() ?? string.Empty,
+        UserRole.Doctor => user.Doctor?.Id.ToString() ?? string.Empty,
+        UserRole.Clerk => user.Clerk?.Id.ToString() ?? string.Empty,
+        _ => string.Empty
+    };
+
+    private LoginResponse CreateSession(User user, string roleSpecificId, DateTime? authTime = null)
+    {
+        var token = _jwtService.GenerateToken(user, roleSpecificId, authTime);
 
         return new LoginResponse
         {
@@ -15,7 +15,12 @@ public class JwtService
         _configuration = configuration;
     }
 
-    public string GenerateToken(User user, string roleSpecificId)
+    /// <summary>
+    /// Issues a token for <paramref name="user"/>. <paramref name="authTime"/> is when the user
+    /// last entered a password; refreshes pass the original value so the session cannot outlive
+    /// Jwt:MaxSessionHours no matter how often it is renewed.
+    /// </summary>
+    public string GenerateToken(User user, string roleSpecificId, DateTime? authTime = null)
     {
         var securityKey = new SymmetricSecurityKey(Encoding.UTF8.GetBytes(
             _configuration["Jwt:Secret"] ?? throw new InvalidOperationException("JWT Secret not configured")));
@@ -28,6 +33,9 @@ public class JwtService
             new Claim(JwtRegisteredClaimNames.Email, user.Email),
             new Claim(ClaimTypes.Role, user.Role.ToString()),
             new Claim("RoleSpecificId", roleSpecificId),
+            new Claim(JwtRegisteredClaimNames.AuthTime,
+                new DateTimeOffset(authTime ?? DateTime.UtcNow).ToUnixTimeSeconds().ToString(),
+                ClaimValueTypes.Integer64),
             new Claim(JwtRegisteredClaimNames.Jti, Guid.NewGuid().ToString())
         };
 
@@ -68,4 +76,61 @@ public class JwtService
             return null;
         }
     }
+
+    /// <summary>
+    /// Like <see cref="ValidateToken"/> but also accepts a token that expired less than
+    /// Jwt:RefreshWindowHours ago, so a client can renew a session it was still using.
+    /// Tokens whose original sign-in is older than Jwt:MaxSessionHours are refused, and
+    /// <paramref name="authTime"/> returns that sign-in time so the new token can carry it on.
+    /// </summary>
+    public ClaimsPrincipal? ValidateTokenForRefresh(string token, out DateTime authTime)
+    {
+        authTime = default;
+        try
+        {
+            var tokenHandler = new JwtSecurityTokenHandler();
+            var key = Encoding.UTF8.GetBytes(_configuration["Jwt:Secret"]!);
+
+            var validationParameters = new TokenValidationParameters
+            {
+                ValidateIssuerSigningKey = true,
+                IssuerSigningKey = new SymmetricSecurityKey(key),
+                ValidateIssuer = true,
+                ValidIssuer = _configuration["Jwt:Issuer"],
+                ValidateAudience = true,
+                ValidAudience = _configuration["Jwt:Audience"],
+                ValidateLifetime = false
+            };
+
+            var principal = tokenHandler.ValidateToken(token, validationParameters, out var securityToken);
+
+            var refreshWindow = TimeSpan.FromHours(int.Parse(_configuration["Jwt:RefreshWindowHours"] ?? "12"));
+            if (securityToken.ValidTo < DateTime.UtcNow - refreshWindow)
+            {
+                return null;
+            }
+
+            // Read the raw claim: the handler maps auth_time to a different type on the principal.
+            var authTimeClaim = (securityToken as JwtSecurityToken)?.Claims
+                .FirstOrDefault(c => c.Type == JwtRegisteredClaimNames.AuthTime)?.Value;
+            if (!long.TryParse(authTimeClaim, out var authTimeSeconds))
+            {
+                return null;
+            }
+
+            var signedInAt = DateTimeOffset.FromUnixTimeSeconds(authTimeSeconds).UtcDateTime;
+            var maxSession = TimeSpan.FromHours(int.Parse(_configuration["Jwt:MaxSessionHours"] ?? "168"));
+            if (signedInAt < DateTime.UtcNow - maxSession)
+            {
+                return null;
+            }
+
+            authTime = signedInAt;
+            return principal;
+        }
+        catch
+        {
+            return null;
+        }
+    }
 }
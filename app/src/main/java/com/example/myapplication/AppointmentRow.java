@@ -0,0 +1,70 @@
+package com.example.myapplication;
+
+import android.graphics.Color;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.utils.DateUtils;
+import java.util.Objects;
+
+/**
+ * Display-ready form of an appointment: every string the row shows is built once, off the
+ * main thread, so {@link AppointmentsAdapter} only assigns fields while binding.
+ */
+public final class AppointmentRow {
+
+    public enum Status {
+        SCHEDULED(Color.parseColor("#2E7D32"), Color.parseColor("#E8F5E9")),
+        COMPLETED(Color.parseColor("#1976D2"), Color.parseColor("#E3F2FD")),
+        CANCELLED(Color.parseColor("#C62828"), Color.parseColor("#FFEBEE"));
+
+        public final int textColor;
+        public final int backgroundColor;
+
+        Status(int textColor, int backgroundColor) {
+            this.textColor = textColor;
+            this.backgroundColor = backgroundColor;
+        }
+
+        // Anything the app does not know is shown like a cancellation, as before
+        static Status from(String status) {
+            if ("Scheduled".equalsIgnoreCase(status)) return SCHEDULED;
+            if ("Completed".equalsIgnoreCase(status)) return COMPLETED;
+            return CANCELLED;
+        }
+    }
+
+    public final AppointmentDTO appointment;
+    public final String id;
+    public final String doctorText;
+    public final String specializationText;
+    public final String dateText;
+    public final String reasonText;
+    public final String statusText;
+    public final Status status;
+
+    private AppointmentRow(AppointmentDTO appointment) {
+        this.appointment = appointment;
+        this.id = appointment.getId();
+        this.doctorText = "Dr. " + appointment.getDoctorName();
+        this.specializationText = appointment.getDoctorSpecialization();
+        this.dateText = DateUtils.formatDateTime(appointment.getAppointmentTime());
+        this.reasonText = "Motif: " + appointment.getReason();
+        this.statusText = appointment.getStatus();
+        this.status = Status.from(appointment.getStatus());
+    }
+
+    public static AppointmentRow from(AppointmentDTO appointment) {
+        return new AppointmentRow(appointment);
+    }
+
+    // Everything but the status badge is the same
+    boolean sameExceptStatus(AppointmentRow other) {
+        return Objects.equals(doctorText, other.doctorText)
+                && Objects.equals(specializationText, other.specializationText)
+                && Objects.equals(dateText, other.dateText)
+                && Objects.equals(reasonText, other.reasonText);
+    }
+
+    boolean sameStatus(AppointmentRow other) {
+        return status == other.status && Objects.equals(statusText, other.statusText);
+    }
+}
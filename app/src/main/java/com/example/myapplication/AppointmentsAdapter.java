@@ -1,27 +1,91 @@
 package com.example.myapplication;
 
-import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.utils.AppExecutors;
+import com.example.myapplication.utils.ComputePipeline;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class AppointmentsAdapter extends RecyclerView.Adapter<AppointmentsAdapter.ViewHolder> {
 
-    private List<AppointmentDTO> appointments;
+    // Start fetching the next page when this many rows are left below the viewport
+    private static final int LOAD_MORE_THRESHOLD = 10;
+
+    // Only the status changed: rebind the badge, keep the rest of the row
+    private static final Object PAYLOAD_STATUS = new Object();
+
+    // Rows are matched by appointment id; new lists are diffed on the compute pool
+    private static final DiffUtil.ItemCallback<AppointmentRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<AppointmentRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull AppointmentRow oldItem, @NonNull AppointmentRow newItem) {
+            return Objects.equals(oldItem.id, newItem.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull AppointmentRow oldItem, @NonNull AppointmentRow newItem) {
+            return oldItem.sameExceptStatus(newItem) && oldItem.sameStatus(newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull AppointmentRow oldItem, @NonNull AppointmentRow newItem) {
+            return oldItem.sameExceptStatus(newItem) ? PAYLOAD_STATUS : null;
+        }
+    };
+
+    private final AsyncListDiffer<AppointmentRow> differ = new AsyncListDiffer<>(this,
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                    .setBackgroundThreadExecutor(AppExecutors.compute())
+                    .build());
+    // Row models are built on the compute pool before they reach the differ
+    private final ComputePipeline<List<AppointmentRow>> rowBuilder = new ComputePipeline<>();
+    // The appointments last handed to the adapter, in display order
+    private List<AppointmentDTO> source = Collections.emptyList();
     private OnAppointmentClickListener listener;
+    private OnLoadMoreListener loadMoreListener;
+    private boolean hasMore = false;
+    private boolean loadingMore = false;
 
     public interface OnAppointmentClickListener {
         void onAppointmentClick(AppointmentDTO appointment);
     }
 
+    public interface OnLoadMoreListener {
+        void onLoadMore();
+    }
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            if (dy <= 0 || loadMoreListener == null || loadingMore || !hasMore) return;
+            RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+            if (!(layoutManager instanceof LinearLayoutManager)) return;
+
+            int lastVisible = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+            if (lastVisible >= getItemCount() - LOAD_MORE_THRESHOLD) {
+                loadingMore = true;
+                // Not allowed to change the adapter from inside a scroll callback
+                recyclerView.post(loadMoreListener::onLoadMore);
+            }
+        }
+    };
+
     public AppointmentsAdapter(List<AppointmentDTO> appointments, OnAppointmentClickListener listener) {
-        this.appointments = appointments;
         this.listener = listener;
+        if (!appointments.isEmpty()) updateData(new ArrayList<>(appointments));
     }
     
     // Constructor for backward compatibility (defaults to null listener)
@@ -33,52 +97,109 @@ public class AppointmentsAdapter extends RecyclerView.Adapter<AppointmentsAdapte
         this.listener = listener;
     }
 
+    // Incremental mode: the adapter asks for the next page as the user nears the end
+    public void setOnLoadMoreListener(OnLoadMoreListener loadMoreListener) {
+        this.loadMoreListener = loadMoreListener;
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        recyclerView.removeOnScrollListener(scrollListener);
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_appointment, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+        // Set once per holder and resolved at click time, so binding allocates nothing
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onAppointmentClick(differ.getCurrentList().get(position).appointment);
+            }
+        });
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        AppointmentDTO appointment = appointments.get(position);
-        
-        holder.doctorNameText.setText("Dr. " + appointment.getDoctorName());
-        holder.specializationText.setText(appointment.getDoctorSpecialization());
-        holder.dateText.setText(appointment.getAppointmentDate().replace("T", " ").substring(0, 16));
-        holder.reasonText.setText("Motif: " + appointment.getReason());
-        
-        String status = appointment.getStatus();
-        holder.statusBadge.setText(status);
-        
-        // Color coding status
-        if ("Scheduled".equalsIgnoreCase(status)) {
-            holder.statusBadge.setTextColor(Color.parseColor("#2E7D32"));
-            holder.statusBadge.getBackground().setTint(Color.parseColor("#E8F5E9"));
-        } else if ("Completed".equalsIgnoreCase(status)) {
-            holder.statusBadge.setTextColor(Color.parseColor("#1976D2"));
-            holder.statusBadge.getBackground().setTint(Color.parseColor("#E3F2FD"));
-        } else {
-            holder.statusBadge.setTextColor(Color.parseColor("#C62828"));
-            holder.statusBadge.getBackground().setTint(Color.parseColor("#FFEBEE"));
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_STATUS) && payloads.size() == 1) {
+            bindStatus(holder, differ.getCurrentList().get(position));
+            return;
         }
-        
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onAppointmentClick(appointment);
-            }
-        });
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        AppointmentRow row = differ.getCurrentList().get(position);
+
+        holder.doctorNameText.setText(row.doctorText);
+        holder.specializationText.setText(row.specializationText);
+        holder.dateText.setText(row.dateText);
+        holder.reasonText.setText(row.reasonText);
+        bindStatus(holder, row);
+    }
+
+    private void bindStatus(ViewHolder holder, AppointmentRow row) {
+        holder.statusBadge.setText(row.statusText);
+        holder.statusBadge.setTextColor(row.status.textColor);
+        holder.statusBadge.getBackground().setTint(row.status.backgroundColor);
     }
 
     @Override
     public int getItemCount() {
-        return appointments.size();
+        return differ.getCurrentList().size();
     }
 
+    // Rows are built and diffed in the background; callers must not modify the list afterwards
     public void updateData(List<AppointmentDTO> newAppointments) {
-        this.appointments = newAppointments;
-        notifyDataSetChanged();
+        source = newAppointments;
+        List<AppointmentRow> previous = differ.getCurrentList();
+        rowBuilder.submit(() -> buildRows(newAppointments, previous), differ::submitList);
+    }
+
+    // Runs on the compute pool; appointments that are the same instance as before keep their row
+    private static List<AppointmentRow> buildRows(List<AppointmentDTO> appointments, List<AppointmentRow> previous) {
+        Map<AppointmentDTO, AppointmentRow> known = new IdentityHashMap<>(previous.size());
+        for (AppointmentRow row : previous) {
+            known.put(row.appointment, row);
+        }
+        List<AppointmentRow> rows = new ArrayList<>(appointments.size());
+        for (AppointmentDTO appointment : appointments) {
+            AppointmentRow row = known.get(appointment);
+            rows.add(row != null ? row : AppointmentRow.from(appointment));
+        }
+        return rows;
+    }
+
+    // Replaces the list with the first page of a paginated query
+    public void setFirstPage(List<AppointmentDTO> page, boolean hasMore) {
+        this.hasMore = hasMore;
+        this.loadingMore = false;
+        updateData(new ArrayList<>(page));
+    }
+
+    public void appendPage(List<AppointmentDTO> page, boolean hasMore) {
+        this.hasMore = hasMore;
+        this.loadingMore = false;
+        if (page.isEmpty()) return;
+        List<AppointmentDTO> combined = new ArrayList<>(source);
+        combined.addAll(page);
+        updateData(combined);
+    }
+
+    // Lets the scroll listener retry after a failed page load
+    public void onLoadMoreFailed() {
+        this.loadingMore = false;
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
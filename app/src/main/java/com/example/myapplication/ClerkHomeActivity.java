@@ -5,19 +5,21 @@ import android.os.Bundle;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.AppointmentEventStream;
 import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
-import com.example.myapplication.api.models.AppointmentDTO;
-import com.example.myapplication.api.models.DashboardDTO;
+import com.example.myapplication.api.models.AppointmentEvent;
+import com.example.myapplication.data.AppointmentPager;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.LocalStore;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.viewmodels.AppointmentListViewModel;
+import com.example.myapplication.viewmodels.ClerkHomeViewModel;
 import java.util.ArrayList;
-import java.util.List;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class ClerkHomeActivity extends AppCompatActivity {
 
@@ -27,6 +29,34 @@ public class ClerkHomeActivity extends AppCompatActivity {
     private AppointmentsAdapter adapter;
     private SessionManager sessionManager;
     private ApiService apiService;
+    private ClerkHomeViewModel viewModel;
+    private AppointmentListViewModel appointments;
+    // Scope of the clinic history in the RefreshScheduler
+    private static final String CLINIC_APPOINTMENTS = "clinic";
+
+    // Changes made elsewhere in the clinic, applied to the list and the counters as they happen
+    private final AppointmentEventStream.Listener eventListener = new AppointmentEventStream.Listener() {
+        @Override
+        public void onAppointmentEvent(AppointmentEvent event) {
+            // Whatever took the change is up to date with the server again without a request
+            RefreshScheduler scheduler = RefreshScheduler.getInstance();
+            if (viewModel.apply(event)) {
+                scheduler.refreshSucceeded(RefreshScheduler.Resource.DASHBOARD, null);
+            }
+            if (appointments.apply(event)) {
+                scheduler.refreshSucceeded(RefreshScheduler.Resource.APPOINTMENTS, CLINIC_APPOINTMENTS);
+            }
+        }
+
+        @Override
+        public void onResync() {
+            loadDashboard();
+            loadAppointments();
+        }
+    };
+
+    // False until the first resume, which follows a load or a rotation that kept the data
+    private boolean refreshOnResume = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -48,6 +78,33 @@ public class ClerkHomeActivity extends AppCompatActivity {
         adapter = new AppointmentsAdapter(new ArrayList<>());
         recyclerView.setAdapter(adapter);
 
+        // The clinic history is paged: first page on load, next pages while scrolling.
+        // Pages and counters live in ViewModels, so a rotation shows them again without a request;
+        // the pager outlives this activity, so nothing passed to init may reference it
+        ApiService api = apiService;
+        ViewModelProvider provider = new ViewModelProvider(this);
+        viewModel = provider.get(ClerkHomeViewModel.class);
+        appointments = provider.get(AppointmentListViewModel.class);
+        appointments.trackFreshness(RefreshScheduler.Resource.APPOINTMENTS, CLINIC_APPOINTMENTS);
+        appointments.init(
+            (cursor, limit) -> api.getAppointmentsPage(AppointmentRepository.STATUS_ALL, cursor, limit),
+            AppointmentPager.recentAppointmentsCache(LocalStore.getInstance(this)));
+        appointments.getState().observe(this, state -> {
+            if (state != null) adapter.setFirstPage(state.items, state.hasMore);
+        });
+        appointments.getErrors().observe(this, event -> {
+            String message = event.consume();
+            if (message == null) return;
+            adapter.onLoadMoreFailed();
+            Toast.makeText(ClerkHomeActivity.this, message, Toast.LENGTH_SHORT).show();
+        });
+        adapter.setOnLoadMoreListener(appointments::loadNextPage);
+
+        viewModel.getDashboard().observe(this, data -> {
+            todayCountText.setText(String.valueOf(data.getTodayAppointments()));
+            pendingCountText.setText(String.valueOf(data.getPendingAppointments()));
+        });
+
         logoutButton.setOnClickListener(v -> {
             sessionManager.logout();
             Intent intent = new Intent(ClerkHomeActivity.this, SignInActivity.class);
@@ -55,62 +112,44 @@ public class ClerkHomeActivity extends AppCompatActivity {
             finish();
         });
 
-        loadDashboard();
-        loadAppointments();
+        if (!viewModel.hasLoaded()) loadDashboard();
+        if (!appointments.hasLoaded()) loadAppointments();
     }
 
     private void loadDashboard() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getDashboard(token).enqueue(new Callback<ApiResponse<DashboardDTO>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<DashboardDTO>> call, Response<ApiResponse<DashboardDTO>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<DashboardDTO> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        DashboardDTO data = apiResponse.getData();
-                        todayCountText.setText(String.valueOf(data.getTodayAppointments()));
-                        pendingCountText.setText(String.valueOf(data.getPendingAppointments()));
-                    }
-                }
-            }
+        if (!sessionManager.hasToken()) return;
 
-            @Override
-            public void onFailure(Call<ApiResponse<DashboardDTO>> call, Throwable t) {
-                // Silently fail for dashboard stats
-            }
-        });
+        viewModel.load();
     }
 
     private void loadAppointments() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        adapter.updateData(apiResponse.getData());
-                    }
-                } else {
-                    Toast.makeText(ClerkHomeActivity.this, "Erreur lors du chargement des données", Toast.LENGTH_SHORT).show();
-                }
-            }
+        if (!sessionManager.hasToken()) return;
 
-            @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                Toast.makeText(ClerkHomeActivity.this, "Erreur réseau: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+        appointments.refresh();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (sessionManager.hasToken()) AppointmentEventStream.getInstance().addListener(eventListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        AppointmentEventStream.getInstance().removeListener(eventListener);
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        loadDashboard();
-        loadAppointments();
+        // Coming back from another screen: only what is stale or was changed meanwhile is reloaded.
+        // Events from the stream keep the data fresh, so while they arrive this reloads nothing
+        if (refreshOnResume) {
+            RefreshScheduler scheduler = RefreshScheduler.getInstance();
+            if (scheduler.needsRefresh(RefreshScheduler.Resource.DASHBOARD)) loadDashboard();
+            if (scheduler.needsRefresh(RefreshScheduler.Resource.APPOINTMENTS, CLINIC_APPOINTMENTS)) loadAppointments();
+        }
+        refreshOnResume = true;
     }
 }
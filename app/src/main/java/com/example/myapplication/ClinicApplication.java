@@ -0,0 +1,14 @@
+package com.example.myapplication;
+
+import android.app.Application;
+import com.example.myapplication.api.RetrofitClient;
+
+public class ClinicApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Before any screen builds the API client, so it gets its disk cache
+        RetrofitClient.init(this);
+    }
+}
@@ -18,6 +18,11 @@ import com.example.myapplication.api.models.ApiResponse;
 import com.example.myapplication.api.models.AppointmentDTO;
 import com.example.myapplication.api.models.CreateAppointmentRequest;
 import com.example.myapplication.api.models.DoctorDTO;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.DossierPrefetcher;
+import com.example.myapplication.data.LocalStore;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.AppExecutors;
 import com.example.myapplication.utils.NotificationHelper;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -88,17 +93,29 @@ public class CreateAppointmentActivity extends AppCompatActivity {
     }
 
     private void loadDoctors() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
+        if (!sessionManager.hasToken()) return;
+
+        // The doctor list rarely changes: fill the spinner from disk while the API answers
+        LocalStore localStore = LocalStore.getInstance(this);
+        AppExecutors.diskIO().execute(() -> {
+            List<DoctorDTO> local = localStore.getDoctors();
+            AppExecutors.mainThread().execute(() -> {
+                if (!local.isEmpty() && doctorsList.isEmpty() && !isFinishing()) {
+                    doctorsList = local;
+                    setupSpinner();
+                }
+            });
+        });
 
-        apiService.getDoctors(token).enqueue(new Callback<ApiResponse<List<DoctorDTO>>>() {
+        apiService.getDoctors().enqueue(new Callback<ApiResponse<List<DoctorDTO>>>() {
             @Override
             public void onResponse(Call<ApiResponse<List<DoctorDTO>>> call, Response<ApiResponse<List<DoctorDTO>>> response) {
                 if (response.isSuccessful() && response.body() != null) {
                     ApiResponse<List<DoctorDTO>> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
-                        doctorsList = apiResponse.getData();
-                        setupSpinner();
+                        List<DoctorDTO> doctors = apiResponse.getData();
+                        AppExecutors.diskIO().execute(() -> localStore.replaceDoctors(doctors));
+                        setupSpinner(doctors);
                     }
                 } else {
                     Toast.makeText(CreateAppointmentActivity.this, "Impossible de charger la liste des médecins", Toast.LENGTH_SHORT).show();
@@ -112,6 +129,20 @@ public class CreateAppointmentActivity extends AppCompatActivity {
         });
     }
 
+    private void setupSpinner(List<DoctorDTO> doctors) {
+        // Keep the current choice when the fresh list replaces the stored one
+        DoctorDTO selected = (DoctorDTO) doctorSpinner.getSelectedItem();
+        doctorsList = doctors;
+        setupSpinner();
+        if (selected == null) return;
+        for (int i = 0; i < doctors.size(); i++) {
+            if (selected.getId() != null && selected.getId().equals(doctors.get(i).getId())) {
+                doctorSpinner.setSelection(i);
+                break;
+            }
+        }
+    }
+
     private void setupSpinner() {
         ArrayAdapter<DoctorDTO> adapter = new ArrayAdapter<>(this, 
                 android.R.layout.simple_spinner_item, doctorsList);
@@ -160,12 +191,15 @@ public class CreateAppointmentActivity extends AppCompatActivity {
             "" // notes
         );
 
-        String token = sessionManager.getAuthHeader();
-        apiService.createAppointment(token, request).enqueue(new Callback<ApiResponse<AppointmentDTO>>() {
+        apiService.createAppointment(request).enqueue(new Callback<ApiResponse<AppointmentDTO>>() {
             @Override
             public void onResponse(Call<ApiResponse<AppointmentDTO>> call, Response<ApiResponse<AppointmentDTO>> response) {
                 if (response.isSuccessful() && response.body() != null) {
                     if (response.body().isSuccess()) {
+                        AppointmentRepository.getInstance(CreateAppointmentActivity.this).invalidate();
+                        RefreshScheduler.getInstance().invalidate(RefreshScheduler.Resource.APPOINTMENTS,
+                                RefreshScheduler.Resource.DASHBOARD, RefreshScheduler.Resource.PATIENTS);
+                        DossierPrefetcher.getInstance().invalidate(storedRoleSpecificId);
                         NotificationHelper.showNotification(CreateAppointmentActivity.this, 
                             "Rendez-vous confirmé", 
                             "Votre consultation avec le Dr. " + selectedDoctor.getName() + " est enregistrée.");
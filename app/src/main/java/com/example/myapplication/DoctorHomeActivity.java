@@ -6,24 +6,17 @@ import android.view.View;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.cardview.widget.CardView;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.example.myapplication.api.ApiService;
-import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
 import com.example.myapplication.api.models.AppointmentDTO;
-import java.text.SimpleDateFormat;
+import com.example.myapplication.data.AppointmentIndex;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.DateUtils;
+import com.example.myapplication.viewmodels.DoctorHomeViewModel;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.Set;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class DoctorHomeActivity extends AppCompatActivity {
 
@@ -34,7 +27,9 @@ public class DoctorHomeActivity extends AppCompatActivity {
     private View emptyStateLayout;
     private AppointmentsAdapter appointmentsAdapter;
     private SessionManager sessionManager;
-    private ApiService apiService;
+    private DoctorHomeViewModel viewModel;
+    // False until the first resume, which follows a load or a rotation that kept the data
+    private boolean refreshOnResume = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -42,7 +37,6 @@ public class DoctorHomeActivity extends AppCompatActivity {
         setContentView(R.layout.activity_doctor_home);
 
         sessionManager = new SessionManager(this);
-        apiService = RetrofitClient.getApiService();
 
         // Initialize views
         welcomeText = findViewById(R.id.welcomeText);
@@ -74,8 +68,12 @@ public class DoctorHomeActivity extends AppCompatActivity {
             finish();
         });
 
-        // Load data
-        loadDashboardData();
+        // Load data; after a rotation the ViewModel still has it
+        viewModel = new ViewModelProvider(this).get(DoctorHomeViewModel.class);
+        viewModel.getIndex().observe(this, this::displaySummary);
+        if (!viewModel.hasLoaded()) {
+            loadDashboardData();
+        }
     }
 
     private void openAgenda() {
@@ -91,55 +89,16 @@ public class DoctorHomeActivity extends AppCompatActivity {
     }
 
     private void loadDashboardData() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        List<AppointmentDTO> appointments = apiResponse.getData();
-                        updateStatistics(appointments);
-                        displayTodayAppointments(appointments);
-                    }
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                // Silently fail
-            }
-        });
-    }
+        if (!sessionManager.hasToken()) return;
 
-    private void updateStatistics(List<AppointmentDTO> appointments) {
-        // Count unique patients
-        Set<String> uniquePatients = new HashSet<>();
-        for (AppointmentDTO appointment : appointments) {
-            uniquePatients.add(appointment.getPatientId());
-        }
-        patientsCountText.setText(String.valueOf(uniquePatients.size()));
-
-        // Count total appointments
-        appointmentsCountText.setText(String.valueOf(appointments.size()));
+        viewModel.load();
     }
 
-    private void displayTodayAppointments(List<AppointmentDTO> appointments) {
-        // Get today's date
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        String todayDate = sdf.format(new Date());
-
-        // Filter appointments for today
-        List<AppointmentDTO> todayAppointments = new ArrayList<>();
-        for (AppointmentDTO appointment : appointments) {
-            String appointmentDate = appointment.getAppointmentDate().substring(0, 10);
-            if (appointmentDate.equals(todayDate)) {
-                todayAppointments.add(appointment);
-            }
-        }
+    private void displaySummary(AppointmentIndex index) {
+        patientsCountText.setText(String.valueOf(index.getPatientCount()));
+        appointmentsCountText.setText(String.valueOf(index.getTotalCount()));
 
+        List<AppointmentDTO> todayAppointments = index.getForDay(DateUtils.today());
         if (todayAppointments.isEmpty()) {
             emptyStateLayout.setVisibility(View.VISIBLE);
             todayAppointmentsRecyclerView.setVisibility(View.GONE);
@@ -153,6 +112,11 @@ public class DoctorHomeActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        loadDashboardData();
+        // Coming back from another screen: reloaded only if stale or changed meanwhile
+        if (refreshOnResume && RefreshScheduler.getInstance()
+                .needsRefresh(RefreshScheduler.Resource.APPOINTMENTS, DoctorHomeViewModel.REFRESH_SCOPE)) {
+            loadDashboardData();
+        }
+        refreshOnResume = true;
     }
 }
@@ -8,27 +8,25 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.example.myapplication.api.ApiService;
-import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
 import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.RefreshScheduler;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import java.util.ArrayList;
 import java.util.List;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class HomeActivity extends AppCompatActivity {
 
+    // Scope of the patient's own appointments in the RefreshScheduler
+    private static final String MY_APPOINTMENTS = "mine";
+
     private TextView welcomeText;
     private TextView profileButton, logoutButton;
     private RecyclerView recyclerView;
     private AppointmentsAdapter adapter;
     private FloatingActionButton addAppointmentFab;
     private SessionManager sessionManager;
-    private ApiService apiService;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,7 +34,6 @@ public class HomeActivity extends AppCompatActivity {
         setContentView(R.layout.activity_home);
 
         sessionManager = new SessionManager(this);
-        apiService = RetrofitClient.getApiService();
 
         welcomeText = findViewById(R.id.welcomeText);
         profileButton = findViewById(R.id.profileButton);
@@ -71,25 +68,21 @@ public class HomeActivity extends AppCompatActivity {
     }
 
     private void loadAppointments() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
+        if (!sessionManager.hasToken()) return;
 
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
+        RefreshScheduler scheduler = RefreshScheduler.getInstance();
+        scheduler.refreshStarted(RefreshScheduler.Resource.APPOINTMENTS, MY_APPOINTMENTS);
+        AppointmentRepository.getInstance(this).getAppointments(new AppointmentRepository.Listener() {
             @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        adapter.updateData(apiResponse.getData());
-                    }
-                } else {
-                    Toast.makeText(HomeActivity.this, "Erreur lors du chargement des rendez-vous", Toast.LENGTH_SHORT).show();
-                }
+            public void onAppointmentsLoaded(List<AppointmentDTO> appointments) {
+                scheduler.refreshSucceeded(RefreshScheduler.Resource.APPOINTMENTS, MY_APPOINTMENTS);
+                adapter.updateData(appointments);
             }
 
             @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                Toast.makeText(HomeActivity.this, "Erreur réseau: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+            public void onAppointmentsError(String message) {
+                scheduler.refreshFailed(RefreshScheduler.Resource.APPOINTMENTS, MY_APPOINTMENTS);
+                Toast.makeText(HomeActivity.this, message, Toast.LENGTH_SHORT).show();
             }
         });
     }
@@ -98,6 +91,9 @@ public class HomeActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         welcomeText.setText("Bienvenue, " + sessionManager.getUserName());
-        loadAppointments();
+        // Right after onCreate, or back from booking (which invalidates), or once the list is stale
+        if (RefreshScheduler.getInstance().needsRefresh(RefreshScheduler.Resource.APPOINTMENTS, MY_APPOINTMENTS)) {
+            loadAppointments();
+        }
     }
 }
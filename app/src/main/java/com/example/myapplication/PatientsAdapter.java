@@ -1,69 +1,234 @@
 package com.example.myapplication;
 
-import android.graphics.Color;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.example.myapplication.fragments.PatientsFragment;
+import com.example.myapplication.api.models.DoctorPatientDTO;
+import com.example.myapplication.utils.AppExecutors;
+import com.example.myapplication.utils.DateUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class PatientsAdapter extends RecyclerView.Adapter<PatientsAdapter.ViewHolder> {
 
-    private List<PatientsFragment.PatientInfo> patients;
+    // Only the appointment count or last visit changed
+    private static final Object PAYLOAD_COUNT = new Object();
+    // Rows still on screen this long after the list stops moving are reported as settled
+    private static final long SETTLE_MS = 500;
+    // Start fetching the next page when this many rows are left below the viewport
+    private static final int LOAD_MORE_THRESHOLD = 20;
+
+    private static final DiffUtil.ItemCallback<DoctorPatientDTO> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<DoctorPatientDTO>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull DoctorPatientDTO oldItem, @NonNull DoctorPatientDTO newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull DoctorPatientDTO oldItem, @NonNull DoctorPatientDTO newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && oldItem.getAppointmentCount() == newItem.getAppointmentCount()
+                    && Objects.equals(oldItem.getLastVisit(), newItem.getLastVisit());
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull DoctorPatientDTO oldItem, @NonNull DoctorPatientDTO newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName()) ? PAYLOAD_COUNT : null;
+        }
+    };
+
+    private final AsyncListDiffer<DoctorPatientDTO> differ = new AsyncListDiffer<>(this,
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                    .setBackgroundThreadExecutor(AppExecutors.compute())
+                    .build());
     private OnPatientClickListener listener;
+    private PrefetchListener prefetchListener;
+    private OnLoadMoreListener loadMoreListener;
+    private boolean hasMore = false;
+    private boolean loadingMore = false;
+    private RecyclerView recyclerView;
+    private final Runnable settleRunnable = this::reportSettled;
+    // Touch-down comes a few hundred milliseconds before the click. Watched from the list, never
+    // consumed, so the rows keep their own click handling, accessibility actions included
+    private final RecyclerView.OnItemTouchListener pressListener = new RecyclerView.SimpleOnItemTouchListener() {
+        @Override
+        public boolean onInterceptTouchEvent(@NonNull RecyclerView view, @NonNull MotionEvent event) {
+            if (event.getActionMasked() != MotionEvent.ACTION_DOWN || prefetchListener == null) return false;
+            View child = view.findChildViewUnder(event.getX(), event.getY());
+            if (child == null) return false;
+            int position = view.getChildViewHolder(child).getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                prefetchListener.onPatientPressed(differ.getCurrentList().get(position));
+            }
+            return false;
+        }
+    };
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+            if (dy <= 0 || loadMoreListener == null || loadingMore || !hasMore
+                    || !(view.getLayoutManager() instanceof LinearLayoutManager)) return;
+            int lastVisible = ((LinearLayoutManager) view.getLayoutManager()).findLastVisibleItemPosition();
+            if (lastVisible >= getItemCount() - LOAD_MORE_THRESHOLD) {
+                loadingMore = true;
+                // Not allowed to change the adapter from inside a scroll callback
+                view.post(loadMoreListener::onLoadMore);
+            }
+        }
+
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                scheduleSettled();
+            } else {
+                view.removeCallbacks(settleRunnable);
+            }
+        }
+    };
 
     public interface OnPatientClickListener {
-        void onPatientClick(PatientsFragment.PatientInfo patient);
+        void onPatientClick(DoctorPatientDTO patient);
+    }
+
+    public interface OnLoadMoreListener {
+        void onLoadMore();
+    }
+
+    // Hints about which patients are likely to be opened next
+    public interface PrefetchListener {
+        // Touch-down on a row, before the click
+        void onPatientPressed(DoctorPatientDTO patient);
+        // Rows on screen once the list stopped moving, in display order
+        void onPatientsSettled(List<DoctorPatientDTO> patients);
     }
 
-    public PatientsAdapter(List<PatientsFragment.PatientInfo> patients, OnPatientClickListener listener) {
-        this.patients = patients;
+    public PatientsAdapter(List<DoctorPatientDTO> patients, OnPatientClickListener listener) {
         this.listener = listener;
+        differ.submitList(patients.isEmpty() ? null : new ArrayList<>(patients));
+        differ.addListListener((previous, current) -> scheduleSettled());
+    }
+
+    public void setPrefetchListener(PrefetchListener prefetchListener) {
+        this.prefetchListener = prefetchListener;
+    }
+
+    // Incremental mode: the adapter asks for the next page as the user nears the end
+    public void setOnLoadMoreListener(OnLoadMoreListener loadMoreListener) {
+        this.loadMoreListener = loadMoreListener;
+    }
+
+    // Also ends the pending request, so a failed page can be asked for again
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+        this.loadingMore = false;
     }
 
-    public void updateData(List<PatientsFragment.PatientInfo> newPatients) {
-        this.patients = newPatients;
-        notifyDataSetChanged();
+    // Diffed in the background against the current list, keyed on patient id; do not modify it afterwards
+    public void updateData(List<DoctorPatientDTO> newPatients) {
+        differ.submitList(newPatients);
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_patient, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+        // Once per holder; the row it stands for is looked up at click time
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onPatientClick(differ.getCurrentList().get(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_COUNT) && payloads.size() == 1) {
+            bindCount(holder, differ.getCurrentList().get(position));
+            return;
+        }
+        super.onBindViewHolder(holder, position, payloads);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        PatientsFragment.PatientInfo patient = patients.get(position);
+        DoctorPatientDTO patient = differ.getCurrentList().get(position);
 
-        // Set avatar letter (first letter of name)
-        String firstLetter = patient.getName().substring(0, 1).toUpperCase(Locale.ROOT);
-        holder.patientAvatar.setText(firstLetter);
+        // Set avatar letter (first letter of name); offline rows may have no name
+        String name = patient.getName() != null ? patient.getName().trim() : "";
+        holder.patientAvatar.setText(name.isEmpty() ? "?" : name.substring(0, 1).toUpperCase(Locale.ROOT));
 
         // Set name
         holder.patientNameText.setText(patient.getName());
 
-        // Set appointment count
+        bindCount(holder, patient);
+    }
+
+    private void bindCount(ViewHolder holder, DoctorPatientDTO patient) {
+        // Set appointment count and last visit
         String countText = patient.getAppointmentCount() + " rendez-vous";
+        long lastVisit = patient.getLastVisitTime();
+        if (lastVisit != DateUtils.INVALID_TIME) {
+            countText += " · dernière visite le " + DateUtils.formatShortDate(lastVisit);
+        }
         holder.appointmentCountText.setText(countText);
+    }
 
-        // Click listener
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onPatientClick(patient);
-            }
-        });
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+        recyclerView.addOnItemTouchListener(pressListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(scrollListener);
+        recyclerView.removeOnItemTouchListener(pressListener);
+        recyclerView.removeCallbacks(settleRunnable);
+        this.recyclerView = null;
+    }
+
+    private void scheduleSettled() {
+        if (recyclerView == null || prefetchListener == null) return;
+        recyclerView.removeCallbacks(settleRunnable);
+        if (recyclerView.getScrollState() == RecyclerView.SCROLL_STATE_IDLE) {
+            recyclerView.postDelayed(settleRunnable, SETTLE_MS);
+        }
+    }
+
+    private void reportSettled() {
+        if (recyclerView == null || prefetchListener == null
+                || !(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+
+        List<DoctorPatientDTO> patients = differ.getCurrentList();
+        List<DoctorPatientDTO> settled = new ArrayList<>();
+        for (int i = first; i <= last && i < patients.size(); i++) {
+            settled.add(patients.get(i));
+        }
+        prefetchListener.onPatientsSettled(settled);
     }
 
     @Override
     public int getItemCount() {
-        return patients.size();
+        return differ.getCurrentList().size();
     }
 
     public static class ViewHolder extends RecyclerView.ViewHolder {
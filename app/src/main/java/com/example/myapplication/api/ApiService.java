@@ -14,63 +14,105 @@ public interface ApiService {
     @POST("auth/register")
     Call<LoginResponse> register(@Body RegisterRequest request);
 
+    // Exchanges a current or recently expired token for a new one
+    @POST("auth/refresh")
+    Call<LoginResponse> refreshToken(@Body RefreshTokenRequest request);
+
     // Appointments
     @GET("appointments")
     Call<ApiResponse<List<AppointmentDTO>>> getAppointments(
-        @Header("Authorization") String token,
         @Query("status") String status
     );
 
+    // from is inclusive, to is exclusive (yyyy-MM-dd'T'HH:mm:ss, clinic local time)
+    @GET("appointments")
+    Call<ApiResponse<List<AppointmentDTO>>> getAppointments(
+        @Query("status") String status,
+        @Query("from") String from,
+        @Query("to") String to
+    );
+
+    // Delta sync: rows changed since the token from the previous call (null for a full list)
+    @GET("appointments/changes")
+    Call<ApiResponse<AppointmentChanges>> getAppointmentChanges(
+        @Query("since") String since
+    );
+
+    // Newest first; pass the previous page's nextCursor to continue
+    @GET("appointments/page")
+    Call<ApiResponse<CursorPage<AppointmentDTO>>> getAppointmentsPage(
+        @Query("status") String status,
+        @Query("cursor") String cursor,
+        @Query("limit") int limit
+    );
+
     @GET("appointments/{id}")
     Call<ApiResponse<AppointmentDTO>> getAppointment(
-        @Header("Authorization") String token,
         @Path("id") String id
     );
 
     @POST("appointments")
     Call<ApiResponse<AppointmentDTO>> createAppointment(
-        @Header("Authorization") String token,
         @Body CreateAppointmentRequest request
     );
 
     @GET("clerk/dashboard")
-    Call<ApiResponse<DashboardDTO>> getDashboard(
-        @Header("Authorization") String token
-    );
+    Call<ApiResponse<DashboardDTO>> getDashboard();
 
     @GET("doctors")
-    Call<ApiResponse<List<DoctorDTO>>> getDoctors(
-        @Header("Authorization") String token
+    Call<ApiResponse<List<DoctorDTO>>> getDoctors();
+
+    // The logged-in doctor's patients with visit counts, sorted by name; pass nextCursor to continue
+    @GET("doctors/me/patients")
+    Call<ApiResponse<CursorPage<DoctorPatientDTO>>> getMyPatients(
+        @Query("cursor") String cursor,
+        @Query("limit") int limit
     );
 
     @PUT("appointments/{id}/complete")
     Call<ApiResponse<AppointmentDTO>> completeAppointment(
-        @Header("Authorization") String token,
         @Path("id") String id,
         @Body CompleteAppointmentRequest request
     );
 
     @DELETE("appointments/{id}")
     Call<ApiResponse<Object>> cancelAppointment(
-        @Header("Authorization") String token,
         @Path("id") String id
     );
 
+    // Typeahead: patients whose name starts with q, sorted by name, at most limit rows
+    @GET("patients/search")
+    Call<ApiResponse<List<DoctorPatientDTO>>> searchPatients(
+        @Query("q") String query,
+        @Query("limit") int limit
+    );
+
     @GET("patients/{id}")
     Call<ApiResponse<PatientDTO>> getPatient(
-        @Header("Authorization") String token,
         @Path("id") String id
     );
 
+    // Profile, first page of the history and notes in one request
+    @GET("patients/{id}/dossier")
+    Call<ApiResponse<PatientDossierDTO>> getPatientDossier(
+        @Path("id") String id,
+        @Query("limit") int limit
+    );
+
+    @GET("patients/{id}/appointments")
+    Call<ApiResponse<CursorPage<AppointmentDTO>>> getPatientAppointments(
+        @Path("id") String id,
+        @Query("cursor") String cursor,
+        @Query("limit") int limit
+    );
+
     @GET("patients/{id}/notes")
     Call<ApiResponse<String>> getPatientNotes(
-        @Header("Authorization") String token,
         @Path("id") String id
     );
 
     @PUT("patients/{id}/notes")
     Call<ApiResponse<String>> updatePatientNotes(
-        @Header("Authorization") String token,
         @Path("id") String id,
         @Body UpdatePatientNotesRequest request
     );
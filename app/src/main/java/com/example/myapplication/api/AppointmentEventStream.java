@@ -0,0 +1,189 @@
+package com.example.myapplication.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import com.example.myapplication.api.models.AppointmentEvent;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Appointment changes pushed by the server on appointments/events (Server-Sent Events).
+ * The connection is open while at least one listener is registered; screens register in
+ * onStart and unregister in onStop. A dropped connection is retried with backoff and resumes
+ * from the last event received, so the server replays what was missed; when it no longer
+ * can, listeners get {@link Listener#onResync()} and reload.
+ * Main thread only; listeners are called on the main thread.
+ */
+public final class AppointmentEventStream {
+
+    private static final long MIN_RETRY_MS = 1_000;
+    private static final long MAX_RETRY_MS = 30_000;
+
+    private static final String EVENT_RESET = "reset";
+
+    private static final AppointmentEventStream instance = new AppointmentEventStream();
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable connectRunnable = this::connect;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Gson gson = RetrofitClient.createGson();
+
+    private Call call;
+    // Sent as Last-Event-ID on reconnect; kept while disconnected so a returning screen catches up
+    private String lastEventId;
+    private long retryMs = MIN_RETRY_MS;
+
+    public interface Listener {
+        void onAppointmentEvent(AppointmentEvent event);
+        // Changes were missed and cannot be replayed: reload what is shown
+        void onResync();
+    }
+
+    private AppointmentEventStream() {}
+
+    public static AppointmentEventStream getInstance() {
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        connect();
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) disconnect();
+    }
+
+    // Forgets the resume point, e.g. on logout: it belongs to the previous user's stream
+    public void reset() {
+        disconnect();
+        lastEventId = null;
+    }
+
+    private void connect() {
+        handler.removeCallbacks(connectRunnable);
+        if (listeners.isEmpty() || call != null) return;
+
+        Request.Builder request = new Request.Builder()
+                .url(RetrofitClient.getBaseUrl() + "appointments/events")
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+
+        Call newCall = RetrofitClient.getStreamingClient().newCall(request.build());
+        call = newCall;
+        newCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call c, @NonNull IOException e) {
+                handler.post(() -> onClosed(newCall));
+            }
+
+            @Override
+            public void onResponse(@NonNull Call c, @NonNull Response response) {
+                // Runs on an OkHttp thread for as long as the stream stays open
+                try (ResponseBody body = response.body()) {
+                    if (response.isSuccessful() && body != null) {
+                        read(body.source(), newCall);
+                    }
+                } catch (IOException e) {
+                    // Dropped or cancelled; reconnected below unless nobody listens any more
+                } finally {
+                    handler.post(() -> onClosed(newCall));
+                }
+            }
+        });
+    }
+
+    private void disconnect() {
+        handler.removeCallbacks(connectRunnable);
+        retryMs = MIN_RETRY_MS;
+        if (call != null) {
+            call.cancel();
+            call = null;
+        }
+    }
+
+    private void onClosed(Call closed) {
+        if (closed != call) return;
+        call = null;
+        if (listeners.isEmpty()) return;
+        handler.postDelayed(connectRunnable, retryMs);
+        retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+    }
+
+    // Blocking; one event per blank-line-terminated block, comment lines (": ping") skipped
+    private void read(BufferedSource source, Call owner) throws IOException {
+        String id = null;
+        String type = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+                if (type != null) deliver(owner, id, type, data.toString());
+                id = null;
+                type = null;
+                data.setLength(0);
+                continue;
+            }
+            if (line.startsWith(":")) continue;
+
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) value = value.substring(1);
+            switch (field) {
+                case "id":
+                    id = value;
+                    break;
+                case "event":
+                    type = value;
+                    break;
+                case "data":
+                    if (data.length() > 0) data.append('\n');
+                    data.append(value);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Parses on the stream's thread, hands over on the main thread
+    private void deliver(Call owner, String id, String type, String data) {
+        AppointmentEvent event = null;
+        if (AppointmentEvent.CREATED.equals(type) || AppointmentEvent.COMPLETED.equals(type)
+                || AppointmentEvent.CANCELLED.equals(type)) {
+            try {
+                event = gson.fromJson(data, AppointmentEvent.class);
+            } catch (JsonParseException e) {
+                // Skipped; the id still moves forward so it is not replayed forever
+            }
+        }
+
+        AppointmentEvent parsed = event;
+        handler.post(() -> {
+            if (owner != call) return;
+            if (id != null) lastEventId = id;
+            retryMs = MIN_RETRY_MS;
+
+            List<Listener> targets = new ArrayList<>(listeners);
+            if (EVENT_RESET.equals(type)) {
+                for (Listener listener : targets) listener.onResync();
+            } else if (parsed != null && parsed.getAppointment() != null) {
+                for (Listener listener : targets) listener.onAppointmentEvent(parsed);
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.myapplication.api;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Adds the bearer token from {@link TokenHolder} to every request, renewing it first when
+ * it is about to expire. Installed as an application interceptor: the request that gets a
+ * 401 then carries the token it was sent with, which {@link TokenAuthenticator} needs to
+ * tell a stale token from one already renewed by a parallel call.
+ */
+public class AuthInterceptor implements Interceptor {
+
+    private final TokenHolder tokenHolder;
+    private final TokenRefresher refresher;
+
+    public AuthInterceptor(TokenHolder tokenHolder, TokenRefresher refresher) {
+        this.tokenHolder = tokenHolder;
+        this.refresher = refresher;
+    }
+
+    // The interceptor and the matching TokenAuthenticator, as every authenticated client needs them
+    static OkHttpClient.Builder install(OkHttpClient.Builder builder, TokenHolder tokenHolder, TokenRefresher refresher) {
+        return builder
+                .addInterceptor(new AuthInterceptor(tokenHolder, refresher))
+                .authenticator(new TokenAuthenticator(refresher));
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String token = tokenHolder.expiresWithin(TokenRefresher.REFRESH_MARGIN_MS)
+                ? refresher.refreshIfExpiring()
+                : tokenHolder.get();
+        Request request = chain.request();
+        if (token == null) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .header("Authorization", "Bearer " + token)
+                .build());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.myapplication.api;
+
+import android.util.Log;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * HTTP logging whose cost depends on the mode, which can be changed while the app runs.
+ * OFF adds nothing to a call. Body modes only peek at the first maxBodyBytes of a response,
+ * so the converter still streams the rest and large lists are never copied in full.
+ * Authorization headers are always redacted.
+ */
+public class NetworkLogInterceptor implements Interceptor {
+
+    public enum Mode {
+        OFF,
+        HEADERS,
+        // Headers for every call, capped bodies for one call in sampleRate
+        SAMPLED_BODY,
+        // Headers and capped bodies for every call
+        CAPPED_BODY
+    }
+
+    private static final String TAG = "ClinicHttp";
+
+    private volatile Mode mode;
+    private volatile int sampleRate = 20;
+    private volatile long maxBodyBytes = 4 * 1024;
+    private final AtomicLong callCount = new AtomicLong();
+
+    public NetworkLogInterceptor(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void setMaxBodyBytes(long maxBodyBytes) {
+        this.maxBodyBytes = Math.max(0, maxBodyBytes);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Mode currentMode = mode;
+        Request request = chain.request();
+        if (currentMode == Mode.OFF) {
+            return chain.proceed(request);
+        }
+
+        boolean logBodies = currentMode == Mode.CAPPED_BODY
+                || (currentMode == Mode.SAMPLED_BODY && callCount.getAndIncrement() % sampleRate == 0);
+        long cap = maxBodyBytes;
+
+        StringBuilder out = new StringBuilder();
+        out.append("--> ").append(request.method()).append(' ').append(request.url()).append('\n');
+        appendHeaders(out, request.headers());
+        if (logBodies) {
+            appendRequestBody(out, request.body(), cap);
+        }
+        Log.d(TAG, out.toString());
+
+        long startNs = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            Log.d(TAG, "<-- HTTP FAILED " + request.url() + ": " + e.getMessage());
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        out.setLength(0);
+        out.append("<-- ").append(response.code()).append(' ').append(request.url())
+                .append(" (").append(tookMs).append("ms)\n");
+        appendHeaders(out, response.headers());
+        if (logBodies && response.body() != null && cap > 0) {
+            // peekBody reads at most cap bytes ahead without consuming the stream
+            ResponseBody peeked = response.peekBody(cap);
+            boolean truncated = peeked.contentLength() >= cap;
+            out.append(peeked.string());
+            if (truncated) out.append("… (truncated)");
+        }
+        Log.d(TAG, out.toString());
+        return response;
+    }
+
+    private static void appendHeaders(StringBuilder out, Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            out.append(name).append(": ")
+                    .append("Authorization".equalsIgnoreCase(name) ? "██" : headers.value(i))
+                    .append('\n');
+        }
+    }
+
+    private static void appendRequestBody(StringBuilder out, RequestBody body, long cap) throws IOException {
+        if (body == null || cap == 0) return;
+        long length = body.contentLength();
+        if (length < 0 || length > cap || body.isOneShot() || body.isDuplex()) {
+            out.append("(body omitted, ").append(length).append(" bytes)\n");
+            return;
+        }
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        out.append(buffer.readString(StandardCharsets.UTF_8)).append('\n');
+    }
+}
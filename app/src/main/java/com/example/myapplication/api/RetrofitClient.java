@@ -1,7 +1,14 @@
 package com.example.myapplication.api;
 
+import android.content.Context;
+import com.example.myapplication.BuildConfig;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.File;
+import java.io.IOException;
+import okhttp3.Cache;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 import java.util.concurrent.TimeUnit;
@@ -13,30 +20,121 @@ public class RetrofitClient {
     // Works for: Emulator, Real Device (WiFi), and prepares for VPS IP.
     private static final String BASE_URL = "http://192.168.1.168:8080/api/";
 
+    // false = Gson's reflective binding for every model, handy to compare parse times
+    private static final boolean STREAMING_JSON = true;
+
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024;
+
     private static Retrofit retrofit = null;
+    private static Cache httpCache = null;
+    private static OkHttpClient baseClient = null;
+    private static OkHttpClient streamingClient = null;
+    private static ApiService authApiService = null;
+
+    private static final NetworkLogInterceptor networkLog =
+            new NetworkLogInterceptor(NetworkLogInterceptor.Mode.valueOf(BuildConfig.NETWORK_LOG_MODE));
+
+    // Called from ClinicApplication; without it the client works uncached
+    public static synchronized void init(Context context) {
+        if (httpCache == null) {
+            httpCache = new Cache(new File(context.getApplicationContext().getCacheDir(), "http"), HTTP_CACHE_SIZE);
+        }
+    }
+
+    // Cached bodies belong to the signed-in user; blocking, call off the main thread
+    public static void clearHttpCache() {
+        Cache cache;
+        synchronized (RetrofitClient.class) {
+            cache = httpCache;
+        }
+        if (cache == null) return;
+        try {
+            cache.evictAll();
+        } catch (IOException e) {
+            // Entries are revalidated with the server anyway
+        }
+    }
 
-    public static Retrofit getClient() {
+    public static synchronized Retrofit getClient() {
         if (retrofit == null) {
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+            OkHttpClient client = AuthInterceptor.install(getBaseClient().newBuilder(),
+                    TokenHolder.getInstance(), TokenRefresher.getInstance())
+                    .build();
+            retrofit = createRetrofit(client);
+        }
+        return retrofit;
+    }
+
+    // Token renewal calls: same connections, but no auth interceptor or authenticator to recurse into
+    static synchronized ApiService getAuthApiService() {
+        if (authApiService == null) {
+            authApiService = createRetrofit(getBaseClient()).create(ApiService.class);
+        }
+        return authApiService;
+    }
+
+    /**
+     * Long-lived event streams: same connections and auth as API calls, but never cached,
+     * without the network log, whose body peek would wait for the stream to end, and with
+     * their own dispatcher.
+     */
+    static synchronized OkHttpClient getStreamingClient() {
+        if (streamingClient == null) {
+            OkHttpClient.Builder builder = AuthInterceptor.install(getBaseClient().newBuilder()
+                    // A stream holds its call for good; on the shared dispatcher it would take one of
+                    // the 5 calls allowed per host away from every API request
+                    .dispatcher(new Dispatcher())
+                    .cache(null)
+                    // The server pings every 15 s, silence past this means the connection is gone
+                    .readTimeout(45, TimeUnit.SECONDS),
+                    TokenHolder.getInstance(), TokenRefresher.getInstance());
+            builder.interceptors().remove(networkLog);
+            streamingClient = builder.build();
+        }
+        return streamingClient;
+    }
 
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(logging)
+    static String getBaseUrl() {
+        return BASE_URL;
+    }
+
+    private static OkHttpClient getBaseClient() {
+        if (baseClient == null) {
+            // Responses with an ETag are stored and revalidated with If-None-Match, a 304 reuses the stored body
+            baseClient = new OkHttpClient.Builder()
+                    .cache(httpCache)
+                    .addInterceptor(networkLog)
                     .connectTimeout(30, TimeUnit.SECONDS)
                     .readTimeout(30, TimeUnit.SECONDS)
                     .writeTimeout(30, TimeUnit.SECONDS)
                     .build();
-
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .client(client)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .build();
         }
-        return retrofit;
+        return baseClient;
+    }
+
+    private static Retrofit createRetrofit(OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(BASE_URL)
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create(createGson()))
+                .build();
     }
 
     public static ApiService getApiService() {
         return getClient().create(ApiService.class);
     }
+
+    // Defaults to the build type's NETWORK_LOG_MODE, can be changed at any time (e.g. from a debug screen)
+    public static NetworkLogInterceptor getNetworkLog() {
+        return networkLog;
+    }
+
+    // The converter hands Gson a reader over the ResponseBody, so rows are decoded as they arrive
+    static Gson createGson() {
+        GsonBuilder builder = new GsonBuilder();
+        if (STREAMING_JSON) {
+            builder.registerTypeAdapterFactory(new StreamingTypeAdapterFactory());
+        }
+        return builder.create();
+    }
 }
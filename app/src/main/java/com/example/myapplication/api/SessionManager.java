@@ -2,6 +2,10 @@ package com.example.myapplication.api;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.DossierPrefetcher;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.AppExecutors;
 
 public class SessionManager {
     private static final String PREF_NAME = "MedicalCabinetPrefs";
@@ -13,12 +17,19 @@ public class SessionManager {
     private static final String KEY_ROLE_SPECIFIC_ID = "roleSpecificId";
     private static final String KEY_IS_LOGGED_IN = "isLoggedIn";
 
+    private Context context;
     private SharedPreferences prefs;
     private SharedPreferences.Editor editor;
+    private final TokenHolder tokenHolder = TokenHolder.getInstance();
 
     public SessionManager(Context context) {
+        this.context = context.getApplicationContext();
         prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         editor = prefs.edit();
+        tokenHolder.restore(prefs.getString(KEY_TOKEN, null));
+        // Renewals happen on OkHttp threads; commit the new token to the same preferences
+        SharedPreferences sessionPrefs = prefs;
+        TokenRefresher.getInstance().setTokenStore(token -> sessionPrefs.edit().putString(KEY_TOKEN, token).apply());
     }
 
     public void saveSession(String token, String userId, String role, String name, String email, String roleSpecificId) {
@@ -30,15 +41,16 @@ public class SessionManager {
         editor.putString(KEY_EMAIL, email);
         editor.putString(KEY_ROLE_SPECIFIC_ID, roleSpecificId);
         editor.apply();
+        tokenHolder.set(token);
     }
 
+    // Served from memory; AuthInterceptor adds it to requests, callers never need to
     public String getToken() {
-        return prefs.getString(KEY_TOKEN, null);
+        return tokenHolder.get();
     }
 
-    public String getAuthHeader() {
-        String token = getToken();
-        return token != null ? "Bearer " + token : null;
+    public boolean hasToken() {
+        return tokenHolder.get() != null;
     }
 
     public boolean isLoggedIn() {
@@ -62,7 +74,13 @@ public class SessionManager {
     }
 
     public void logout() {
+        tokenHolder.clear();
         editor.clear();
         editor.apply();
+        AppointmentRepository.getInstance(context).clear();
+        RefreshScheduler.getInstance().clear();
+        AppointmentEventStream.getInstance().reset();
+        DossierPrefetcher.getInstance().clear();
+        AppExecutors.diskIO().execute(RetrofitClient::clearHttpCache);
     }
 }
@@ -0,0 +1,283 @@
+package com.example.myapplication.api;
+
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.DashboardDTO;
+import com.example.myapplication.api.models.DoctorDTO;
+import com.example.myapplication.api.models.PatientDTO;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Hand-written Gson adapters for the payloads the app downloads in bulk.
+ * They read fields by name straight off the response stream instead of going through
+ * reflection for every row; unknown fields are skipped so the server can add new ones.
+ * Any other type falls back to Gson's default binding.
+ */
+public class StreamingTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == AppointmentDTO.class) return (TypeAdapter<T>) new AppointmentAdapter().nullSafe();
+        if (rawType == PatientDTO.class) return (TypeAdapter<T>) new PatientAdapter().nullSafe();
+        if (rawType == DoctorDTO.class) return (TypeAdapter<T>) new DoctorAdapter().nullSafe();
+        if (rawType == DashboardDTO.class) return (TypeAdapter<T>) new DashboardAdapter().nullSafe();
+        if (rawType == ApiResponse.class) {
+            Type dataType = type.getType() instanceof ParameterizedType
+                    ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0]
+                    : Object.class;
+            return (TypeAdapter<T>) new ApiResponseAdapter<>(gson.getAdapter(TypeToken.get(dataType))).nullSafe();
+        }
+        return null;
+    }
+
+    private static class ApiResponseAdapter<D> extends TypeAdapter<ApiResponse<D>> {
+        private final TypeAdapter<D> dataAdapter;
+
+        ApiResponseAdapter(TypeAdapter<D> dataAdapter) {
+            this.dataAdapter = dataAdapter;
+        }
+
+        @Override
+        public ApiResponse<D> read(JsonReader in) throws IOException {
+            boolean success = false;
+            D data = null;
+            ApiResponse.Error error = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "success": success = nextBoolean(in); break;
+                    case "data": data = dataAdapter.read(in); break;
+                    case "error": error = readError(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ApiResponse<>(success, data, error);
+        }
+
+        @Override
+        public void write(JsonWriter out, ApiResponse<D> value) throws IOException {
+            out.beginObject();
+            out.name("success").value(value.isSuccess());
+            out.name("data");
+            dataAdapter.write(out, value.getData());
+            out.name("error");
+            if (value.getError() == null) {
+                out.nullValue();
+            } else {
+                out.beginObject();
+                out.name("code").value(value.getError().getCode());
+                out.name("message").value(value.getError().getMessage());
+                out.endObject();
+            }
+            out.endObject();
+        }
+
+        private static ApiResponse.Error readError(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String code = null;
+            String message = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "code": code = nextString(in); break;
+                    case "message": message = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ApiResponse.Error(code, message);
+        }
+    }
+
+    private static class AppointmentAdapter extends TypeAdapter<AppointmentDTO> {
+        @Override
+        public AppointmentDTO read(JsonReader in) throws IOException {
+            String id = null, patientId = null, doctorId = null, appointmentDate = null, reason = null;
+            String notes = null, doctorNotes = null, status = null, patientName = null;
+            String doctorName = null, doctorSpecialization = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": id = nextString(in); break;
+                    case "patientId": patientId = nextString(in); break;
+                    case "doctorId": doctorId = nextString(in); break;
+                    case "appointmentDate": appointmentDate = nextString(in); break;
+                    case "reason": reason = nextString(in); break;
+                    case "notes": notes = nextString(in); break;
+                    case "doctorNotes": doctorNotes = nextString(in); break;
+                    case "status": status = nextString(in); break;
+                    case "patientName": patientName = nextString(in); break;
+                    case "doctorName": doctorName = nextString(in); break;
+                    case "doctorSpecialization": doctorSpecialization = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new AppointmentDTO(id, patientId, doctorId, appointmentDate, reason, notes, doctorNotes,
+                    status, patientName, doctorName, doctorSpecialization);
+        }
+
+        @Override
+        public void write(JsonWriter out, AppointmentDTO value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("patientId").value(value.getPatientId());
+            out.name("doctorId").value(value.getDoctorId());
+            out.name("appointmentDate").value(value.getAppointmentDate());
+            out.name("reason").value(value.getReason());
+            out.name("notes").value(value.getNotes());
+            out.name("doctorNotes").value(value.getDoctorNotes());
+            out.name("status").value(value.getStatus());
+            out.name("patientName").value(value.getPatientName());
+            out.name("doctorName").value(value.getDoctorName());
+            out.name("doctorSpecialization").value(value.getDoctorSpecialization());
+            out.endObject();
+        }
+    }
+
+    private static class PatientAdapter extends TypeAdapter<PatientDTO> {
+        @Override
+        public PatientDTO read(JsonReader in) throws IOException {
+            PatientDTO patient = new PatientDTO();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": patient.setId(nextString(in)); break;
+                    case "email": patient.setEmail(nextString(in)); break;
+                    case "firstName": patient.setFirstName(nextString(in)); break;
+                    case "lastName": patient.setLastName(nextString(in)); break;
+                    case "phone": patient.setPhone(nextString(in)); break;
+                    case "dateOfBirth": patient.setDateOfBirth(nextString(in)); break;
+                    case "address": patient.setAddress(nextString(in)); break;
+                    case "emergencyContactName": patient.setEmergencyContactName(nextString(in)); break;
+                    case "emergencyContactPhone": patient.setEmergencyContactPhone(nextString(in)); break;
+                    case "doctorNotes": patient.setDoctorNotes(nextString(in)); break;
+                    case "registrationDate": patient.setRegistrationDate(nextString(in)); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return patient;
+        }
+
+        @Override
+        public void write(JsonWriter out, PatientDTO value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("email").value(value.getEmail());
+            out.name("firstName").value(value.getFirstName());
+            out.name("lastName").value(value.getLastName());
+            out.name("phone").value(value.getPhone());
+            out.name("dateOfBirth").value(value.getDateOfBirth());
+            out.name("address").value(value.getAddress());
+            out.name("emergencyContactName").value(value.getEmergencyContactName());
+            out.name("emergencyContactPhone").value(value.getEmergencyContactPhone());
+            out.name("doctorNotes").value(value.getDoctorNotes());
+            out.name("registrationDate").value(value.getRegistrationDate());
+            out.endObject();
+        }
+    }
+
+    private static class DoctorAdapter extends TypeAdapter<DoctorDTO> {
+        @Override
+        public DoctorDTO read(JsonReader in) throws IOException {
+            String id = null, name = null, specialization = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": id = nextString(in); break;
+                    case "name": name = nextString(in); break;
+                    case "specialization": specialization = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DoctorDTO(id, name, specialization);
+        }
+
+        @Override
+        public void write(JsonWriter out, DoctorDTO value) throws IOException {
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("name").value(value.getName());
+            out.name("specialization").value(value.getSpecialization());
+            out.endObject();
+        }
+    }
+
+    private static class DashboardAdapter extends TypeAdapter<DashboardDTO> {
+        @Override
+        public DashboardDTO read(JsonReader in) throws IOException {
+            int todayAppointments = 0, pendingAppointments = 0, totalPatients = 0, totalDoctors = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "todayAppointments": todayAppointments = nextInt(in); break;
+                    case "pendingAppointments": pendingAppointments = nextInt(in); break;
+                    case "totalPatients": totalPatients = nextInt(in); break;
+                    case "totalDoctors": totalDoctors = nextInt(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new DashboardDTO(todayAppointments, pendingAppointments, totalPatients, totalDoctors);
+        }
+
+        @Override
+        public void write(JsonWriter out, DashboardDTO value) throws IOException {
+            out.beginObject();
+            out.name("todayAppointments").value(value.getTodayAppointments());
+            out.name("pendingAppointments").value(value.getPendingAppointments());
+            out.name("totalPatients").value(value.getTotalPatients());
+            out.name("totalDoctors").value(value.getTotalDoctors());
+            out.endObject();
+        }
+    }
+
+    // The reflective path accepts numbers and booleans for String fields, so these do as well
+
+    private static String nextString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    private static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    private static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+        return in.nextBoolean();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.myapplication.api;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Answers a 401 by renewing the token once and replaying the request with it.
+ * Parallel 401s share the same renewal through {@link TokenRefresher}.
+ */
+public class TokenAuthenticator implements Authenticator {
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenRefresher refresher;
+
+    public TokenAuthenticator(TokenRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    @Override
+    public Request authenticate(Route route, Response response) {
+        String header = response.request().header("Authorization");
+        // Not sent with a token, or already replayed once: let the 401 through
+        if (header == null || !header.startsWith(BEARER) || response.priorResponse() != null) {
+            return null;
+        }
+
+        String renewed = refresher.refresh(header.substring(BEARER.length()));
+        if (renewed == null) return null;
+
+        return response.request().newBuilder()
+                .header("Authorization", BEARER + renewed)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.myapplication.api;
+
+import android.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * In-memory copy of the session's access token, shared by {@link AuthInterceptor} and
+ * {@link SessionManager}. Reads are lock-free and writes serialized; a new token is visible
+ * to the next request attempt on any thread, including OkHttp retries of calls in flight.
+ * The token's exp claim is decoded locally so it can be renewed before it lapses.
+ */
+public final class TokenHolder {
+
+    private static final TokenHolder instance = new TokenHolder();
+
+    private volatile String token;
+    // Epoch millis from the exp claim, 0 when unknown
+    private volatile long expiresAt;
+    private volatile boolean restored = false;
+
+    private TokenHolder() {}
+
+    public static TokenHolder getInstance() {
+        return instance;
+    }
+
+    public String get() {
+        return token;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    // False when the expiry is unknown, so such tokens are only renewed after a 401
+    public boolean expiresWithin(long millis) {
+        long exp = expiresAt;
+        return exp > 0 && exp - System.currentTimeMillis() <= millis;
+    }
+
+    public synchronized void set(String token) {
+        this.expiresAt = parseExpiry(token);
+        this.token = token;
+        restored = true;
+    }
+
+    public void clear() {
+        set(null);
+    }
+
+    // Replaces the token only if it is still the expected one (e.g. not logged out meanwhile)
+    synchronized boolean compareAndSet(String expected, String token) {
+        if (!Objects.equals(this.token, expected)) return false;
+        set(token);
+        return true;
+    }
+
+    // Loads the persisted token once per process; later calls are ignored
+    synchronized void restore(String persistedToken) {
+        if (restored) return;
+        set(persistedToken);
+    }
+
+    private static long parseExpiry(String token) {
+        if (token == null) return 0;
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) return 0;
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            return new JSONObject(new String(payload, StandardCharsets.UTF_8)).optLong("exp", 0) * 1000;
+        } catch (IllegalArgumentException | JSONException e) {
+            return 0;
+        }
+    }
+}
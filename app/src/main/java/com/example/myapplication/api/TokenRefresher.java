@@ -0,0 +1,97 @@
+package com.example.myapplication.api;
+
+import android.os.SystemClock;
+import com.example.myapplication.api.models.LoginResponse;
+import com.example.myapplication.api.models.RefreshTokenRequest;
+import java.io.IOException;
+import java.util.function.Supplier;
+import retrofit2.Response;
+
+/**
+ * Renews the access token through /auth/refresh, one renewal at a time.
+ * Callers that arrive while a renewal runs wait for it and reuse its token, so any number
+ * of requests failing or expiring together cost a single refresh call.
+ * Blocking: only call from OkHttp threads.
+ */
+public class TokenRefresher {
+
+    // Renew this long before exp so no request leaves with a token about to lapse
+    static final long REFRESH_MARGIN_MS = 5 * 60_000;
+
+    // After a failed proactive renewal, let requests go out with the old token for a while
+    private static final long RETRY_DELAY_MS = 30_000;
+
+    private static final TokenRefresher instance = new TokenRefresher(TokenHolder.getInstance());
+
+    private final TokenHolder tokenHolder;
+    // Client without the auth interceptor or authenticator, so a refresh never recurses
+    private final Supplier<ApiService> authApi;
+    private volatile TokenStore tokenStore;
+    private long lastFailureAt = -RETRY_DELAY_MS;
+
+    // Persists a renewed token so it survives the process
+    public interface TokenStore {
+        void save(String token);
+    }
+
+    private TokenRefresher(TokenHolder tokenHolder) {
+        this(tokenHolder, RetrofitClient::getAuthApiService);
+    }
+
+    // Tests point it at a local server
+    TokenRefresher(TokenHolder tokenHolder, Supplier<ApiService> authApi) {
+        this.tokenHolder = tokenHolder;
+        this.authApi = authApi;
+    }
+
+    public static TokenRefresher getInstance() {
+        return instance;
+    }
+
+    public void setTokenStore(TokenStore tokenStore) {
+        this.tokenStore = tokenStore;
+    }
+
+    // Proactive path: renews the current token if it is close to expiry, returns the token to send
+    String refreshIfExpiring() {
+        String token = tokenHolder.get();
+        if (token == null || !tokenHolder.expiresWithin(REFRESH_MARGIN_MS)) return token;
+        synchronized (this) {
+            if (SystemClock.elapsedRealtime() - lastFailureAt < RETRY_DELAY_MS) return tokenHolder.get();
+            String renewed = refresh(token);
+            return renewed != null ? renewed : tokenHolder.get();
+        }
+    }
+
+    /**
+     * Returns a token newer than staleToken, renewing it if nobody did yet,
+     * or null if the session cannot be renewed and the user has to log in again.
+     */
+    synchronized String refresh(String staleToken) {
+        String current = tokenHolder.get();
+        if (current == null) return null;
+        if (!current.equals(staleToken)) return current;
+
+        try {
+            Response<LoginResponse> response = authApi.get()
+                    .refreshToken(new RefreshTokenRequest(staleToken))
+                    .execute();
+            LoginResponse body = response.body();
+            if (response.isSuccessful() && body != null && body.isSuccess()
+                    && body.getData() != null && body.getData().getToken() != null) {
+                String renewed = body.getData().getToken();
+                if (!tokenHolder.compareAndSet(staleToken, renewed)) {
+                    // Logged out or logged in again while the call ran
+                    return tokenHolder.get();
+                }
+                TokenStore store = tokenStore;
+                if (store != null) store.save(renewed);
+                return renewed;
+            }
+        } catch (IOException e) {
+            // Treated like a refused renewal
+        }
+        lastFailureAt = SystemClock.elapsedRealtime();
+        return null;
+    }
+}
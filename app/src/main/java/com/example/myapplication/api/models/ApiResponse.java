@@ -5,6 +5,14 @@ public class ApiResponse<T> {
     private T data;
     private Error error;
 
+    public ApiResponse() {}
+
+    public ApiResponse(boolean success, T data, Error error) {
+        this.success = success;
+        this.data = data;
+        this.error = error;
+    }
+
     public boolean isSuccess() { return success; }
     public T getData() { return data; }
     public Error getError() { return error; }
@@ -13,6 +21,13 @@ public class ApiResponse<T> {
         private String code;
         private String message;
 
+        public Error() {}
+
+        public Error(String code, String message) {
+            this.code = code;
+            this.message = message;
+        }
+
         public String getCode() { return code; }
         public String getMessage() { return message; }
     }
@@ -0,0 +1,16 @@
+package com.example.myapplication.api.models;
+
+import java.util.List;
+
+public class AppointmentChanges {
+    private List<AppointmentDTO> upserted;
+    private List<String> deletedIds;
+    private String token;
+    private boolean reset;
+
+    public List<AppointmentDTO> getUpserted() { return upserted; }
+    public List<String> getDeletedIds() { return deletedIds; }
+    public String getToken() { return token; }
+    // True when upserted is the full list and must replace the local copy
+    public boolean isReset() { return reset; }
+}
@@ -1,5 +1,7 @@
 package com.example.myapplication.api.models;
 
+import com.example.myapplication.utils.DateUtils;
+
 public class AppointmentDTO {
     private String id;
     private String patientId;
@@ -13,6 +15,31 @@ public class AppointmentDTO {
     private String doctorName;
     private String doctorSpecialization;
 
+    // appointmentDate parsed once; transient so Gson neither reads nor writes them
+    private transient long appointmentTime;
+    private transient int appointmentDay;
+    private transient volatile boolean timeParsed;
+
+    public AppointmentDTO() {}
+
+    // Used when rebuilding rows from the local database and by the streaming JSON adapter
+    public AppointmentDTO(String id, String patientId, String doctorId, String appointmentDate, String reason,
+                          String notes, String doctorNotes, String status, String patientName,
+                          String doctorName, String doctorSpecialization) {
+        this.id = id;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.appointmentDate = appointmentDate;
+        this.reason = reason;
+        this.notes = notes;
+        this.doctorNotes = doctorNotes;
+        this.status = status;
+        this.patientName = patientName;
+        this.doctorName = doctorName;
+        this.doctorSpecialization = doctorSpecialization;
+        parseTime();
+    }
+
     public String getId() { return id; }
     public String getPatientId() { return patientId; }
     public String getDoctorId() { return doctorId; }
@@ -24,4 +51,23 @@ public class AppointmentDTO {
     public String getPatientName() { return patientName; }
     public String getDoctorName() { return doctorName; }
     public String getDoctorSpecialization() { return doctorSpecialization; }
+
+    // Epoch millis of appointmentDate, or DateUtils.INVALID_TIME
+    public long getAppointmentTime() {
+        if (!timeParsed) parseTime();
+        return appointmentTime;
+    }
+
+    // Local epoch day of appointmentDate, or DateUtils.INVALID_DAY
+    public int getAppointmentDay() {
+        if (!timeParsed) parseTime();
+        return appointmentDay;
+    }
+
+    // Eager for the constructor path, lazy for instances Gson built by reflection
+    private void parseTime() {
+        appointmentTime = DateUtils.parseIsoMillis(appointmentDate);
+        appointmentDay = DateUtils.localEpochDay(appointmentTime);
+        timeParsed = true;
+    }
 }
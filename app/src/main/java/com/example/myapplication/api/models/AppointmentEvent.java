@@ -0,0 +1,16 @@
+package com.example.myapplication.api.models;
+
+// One change pushed on appointments/events: the appointment as it is after the change
+public class AppointmentEvent {
+    public static final String CREATED = "created";
+    public static final String COMPLETED = "completed";
+    public static final String CANCELLED = "cancelled";
+
+    private long id;
+    private String type;
+    private AppointmentDTO appointment;
+
+    public long getId() { return id; }
+    public String getType() { return type; }
+    public AppointmentDTO getAppointment() { return appointment; }
+}
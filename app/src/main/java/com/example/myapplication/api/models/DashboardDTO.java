@@ -6,6 +6,15 @@ public class DashboardDTO {
     private int totalPatients;
     private int totalDoctors;
 
+    public DashboardDTO() {}
+
+    public DashboardDTO(int todayAppointments, int pendingAppointments, int totalPatients, int totalDoctors) {
+        this.todayAppointments = todayAppointments;
+        this.pendingAppointments = pendingAppointments;
+        this.totalPatients = totalPatients;
+        this.totalDoctors = totalDoctors;
+    }
+
     public int getTodayAppointments() { return todayAppointments; }
     public int getPendingAppointments() { return pendingAppointments; }
     public int getTotalPatients() { return totalPatients; }
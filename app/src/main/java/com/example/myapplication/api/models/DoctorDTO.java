@@ -5,6 +5,14 @@ public class DoctorDTO {
     private String name;
     private String specialization;
 
+    public DoctorDTO() {}
+
+    public DoctorDTO(String id, String name, String specialization) {
+        this.id = id;
+        this.name = name;
+        this.specialization = specialization;
+    }
+
     public String getId() { return id; }
     public String getName() { return name; }
     public String getSpecialization() { return specialization; }
@@ -0,0 +1,43 @@
+package com.example.myapplication.api.models;
+
+import com.example.myapplication.utils.DateUtils;
+
+// Patient list / search row; for a doctor the counts cover that doctor's appointments only
+public class DoctorPatientDTO {
+    private String id;
+    private String name;
+    private int appointmentCount;
+    // Latest past, non-cancelled appointment; null if none
+    private String lastVisit;
+
+    // lastVisit parsed once; transient so Gson neither reads nor writes them
+    private transient long lastVisitTime;
+    private transient volatile boolean lastVisitParsed;
+
+    public DoctorPatientDTO() {}
+
+    public DoctorPatientDTO(String id, String name, int appointmentCount, String lastVisit) {
+        this.id = id;
+        this.name = name;
+        this.appointmentCount = appointmentCount;
+        this.lastVisit = lastVisit;
+        parseLastVisit();
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public int getAppointmentCount() { return appointmentCount; }
+    public String getLastVisit() { return lastVisit; }
+
+    // Epoch millis of lastVisit, or DateUtils.INVALID_TIME
+    public long getLastVisitTime() {
+        if (!lastVisitParsed) parseLastVisit();
+        return lastVisitTime;
+    }
+
+    // Eager for the constructor path, lazy for instances Gson built by reflection
+    private void parseLastVisit() {
+        lastVisitTime = DateUtils.parseIsoMillis(lastVisit);
+        lastVisitParsed = true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.myapplication.api.models;
+
+// Profile, first history page and notes from patients/{id}/dossier
+public class PatientDossierDTO {
+    private PatientDTO patient;
+    // Continue with getPatientAppointments and appointments.getNextCursor()
+    private CursorPage<AppointmentDTO> appointments;
+    // Null when the caller may not read them
+    private String notes;
+
+    public PatientDTO getPatient() { return patient; }
+    public CursorPage<AppointmentDTO> getAppointments() { return appointments; }
+    public String getNotes() { return notes; }
+}
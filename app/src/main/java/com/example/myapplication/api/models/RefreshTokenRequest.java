@@ -0,0 +1,11 @@
+package com.example.myapplication.api.models;
+
+public class RefreshTokenRequest {
+    private String token;
+
+    public RefreshTokenRequest(String token) {
+        this.token = token;
+    }
+
+    public String getToken() { return token; }
+}
@@ -0,0 +1,95 @@
+package com.example.myapplication.data;
+
+import com.example.myapplication.api.models.AppointmentDTO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable buckets over one appointment list: by local epoch day, by patient and by doctor,
+ * each keeping the list's order (appointment date). Lookups cost O(result) and the counts
+ * are computed once. Build off the main thread; read from any thread.
+ */
+public final class AppointmentIndex {
+
+    private final int totalCount;
+    private final Map<Integer, List<AppointmentDTO>> byDay;
+    // Insertion ordered, so ids come out in order of each patient's first appointment
+    private final Map<String, List<AppointmentDTO>> byPatient;
+    private final Map<String, List<AppointmentDTO>> byDoctor;
+
+    private AppointmentIndex(int totalCount, Map<Integer, List<AppointmentDTO>> byDay,
+                             Map<String, List<AppointmentDTO>> byPatient,
+                             Map<String, List<AppointmentDTO>> byDoctor) {
+        this.totalCount = totalCount;
+        this.byDay = byDay;
+        this.byPatient = byPatient;
+        this.byDoctor = byDoctor;
+    }
+
+    public static AppointmentIndex build(List<AppointmentDTO> appointments) {
+        Map<Integer, List<AppointmentDTO>> byDay = new HashMap<>();
+        Map<String, List<AppointmentDTO>> byPatient = new LinkedHashMap<>();
+        Map<String, List<AppointmentDTO>> byDoctor = new HashMap<>();
+
+        for (AppointmentDTO appointment : appointments) {
+            add(byDay, appointment.getAppointmentDay(), appointment);
+            if (appointment.getPatientId() != null) add(byPatient, appointment.getPatientId(), appointment);
+            if (appointment.getDoctorId() != null) add(byDoctor, appointment.getDoctorId(), appointment);
+        }
+
+        return new AppointmentIndex(appointments.size(), freeze(byDay), freeze(byPatient), freeze(byDoctor));
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getPatientCount() {
+        return byPatient.size();
+    }
+
+    public int getDoctorCount() {
+        return byDoctor.size();
+    }
+
+    public List<AppointmentDTO> getForDay(int epochDay) {
+        return orEmpty(byDay.get(epochDay));
+    }
+
+    public List<AppointmentDTO> getForPatient(String patientId) {
+        return orEmpty(byPatient.get(patientId));
+    }
+
+    public List<AppointmentDTO> getForDoctor(String doctorId) {
+        return orEmpty(byDoctor.get(doctorId));
+    }
+
+    public Set<String> getPatientIds() {
+        return byPatient.keySet();
+    }
+
+    private static <K> void add(Map<K, List<AppointmentDTO>> buckets, K key, AppointmentDTO appointment) {
+        List<AppointmentDTO> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.put(key, bucket);
+        }
+        bucket.add(appointment);
+    }
+
+    private static <K> Map<K, List<AppointmentDTO>> freeze(Map<K, List<AppointmentDTO>> buckets) {
+        for (Map.Entry<K, List<AppointmentDTO>> entry : buckets.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(buckets);
+    }
+
+    private static List<AppointmentDTO> orEmpty(List<AppointmentDTO> bucket) {
+        return bucket != null ? bucket : Collections.<AppointmentDTO>emptyList();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.myapplication.data;
+
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.CursorPage;
+import com.example.myapplication.utils.AppExecutors;
+import java.util.Collections;
+import java.util.List;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Walks a cursor-paginated appointment endpoint one page at a time.
+ * Only one page request is in flight at once; main thread only.
+ * With a {@link LocalCache} the first page is shown from disk while the network loads,
+ * and every page received is written back.
+ */
+public class AppointmentPager {
+
+    public static final int PAGE_SIZE = 50;
+
+    private final PageRequest request;
+    private final LocalCache localCache;
+    private final Listener listener;
+
+    private String nextCursor;
+    private boolean hasMore = true;
+    // Until then the stored first page may be shown
+    private boolean firstPageLoaded = false;
+    private Call<ApiResponse<CursorPage<AppointmentDTO>>> inFlight;
+
+    public interface PageRequest {
+        Call<ApiResponse<CursorPage<AppointmentDTO>>> create(String cursor, int limit);
+    }
+
+    // Both methods run on the disk thread
+    public interface LocalCache {
+        List<AppointmentDTO> read();
+        void write(List<AppointmentDTO> page);
+    }
+
+    public interface Listener {
+        void onPageLoaded(List<AppointmentDTO> items, boolean firstPage, boolean hasMore);
+        void onPageError(String message);
+    }
+
+    // Static so the caches hold no reference to the screen that created them
+    public static LocalCache recentAppointmentsCache(LocalStore localStore) {
+        return new LocalCache() {
+            @Override
+            public List<AppointmentDTO> read() {
+                return localStore.getRecentAppointments(PAGE_SIZE);
+            }
+
+            @Override
+            public void write(List<AppointmentDTO> page) {
+                localStore.savePagedAppointments(page);
+            }
+        };
+    }
+
+    public static LocalCache patientAppointmentsCache(LocalStore localStore, String patientId) {
+        return new LocalCache() {
+            @Override
+            public List<AppointmentDTO> read() {
+                return localStore.getAppointmentsForPatient(patientId, PAGE_SIZE);
+            }
+
+            @Override
+            public void write(List<AppointmentDTO> page) {
+                localStore.savePagedAppointments(page);
+            }
+        };
+    }
+
+    public AppointmentPager(PageRequest request, Listener listener) {
+        this(request, null, listener);
+    }
+
+    public AppointmentPager(PageRequest request, LocalCache localCache, Listener listener) {
+        this.request = request;
+        this.localCache = localCache;
+        this.listener = listener;
+    }
+
+    // Starts over from the newest appointments, dropping any page still loading
+    public void refresh() {
+        cancel();
+        nextCursor = null;
+        hasMore = true;
+        firstPageLoaded = false;
+        load(true);
+        showStored();
+    }
+
+    // The stored first page, while the network's has not arrived yet
+    public void showStored() {
+        if (localCache == null) return;
+        AppExecutors.diskIO().execute(() -> {
+            List<AppointmentDTO> local = localCache.read();
+            AppExecutors.mainThread().execute(() -> {
+                if (!firstPageLoaded && !local.isEmpty()) {
+                    listener.onPageLoaded(local, true, false);
+                }
+            });
+        });
+    }
+
+    // A first page fetched along with something else, e.g. a dossier; next pages continue from its cursor
+    public void showFirstPage(CursorPage<AppointmentDTO> page) {
+        cancel();
+        deliver(page, true);
+    }
+
+    // Drops the page loading, if any; for screens going away
+    public void cancel() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    public void loadNextPage() {
+        if (inFlight != null || !hasMore) return;
+        load(false);
+    }
+
+    public boolean isLoading() {
+        return inFlight != null;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    private void load(boolean firstPage) {
+        Call<ApiResponse<CursorPage<AppointmentDTO>>> call = request.create(nextCursor, PAGE_SIZE);
+        inFlight = call;
+        call.enqueue(new Callback<ApiResponse<CursorPage<AppointmentDTO>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<CursorPage<AppointmentDTO>>> call, Response<ApiResponse<CursorPage<AppointmentDTO>>> response) {
+                if (call != inFlight) return;
+                inFlight = null;
+
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null) {
+                    deliver(response.body().getData(), firstPage);
+                } else {
+                    listener.onPageError("Erreur lors du chargement des rendez-vous");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<CursorPage<AppointmentDTO>>> call, Throwable t) {
+                if (call != inFlight) return;
+                inFlight = null;
+                if (!call.isCanceled()) {
+                    listener.onPageError("Erreur réseau: " + t.getMessage());
+                }
+            }
+        });
+    }
+
+    private void deliver(CursorPage<AppointmentDTO> page, boolean firstPage) {
+        nextCursor = page.getNextCursor();
+        hasMore = page.hasMore() && nextCursor != null;
+        if (firstPage) firstPageLoaded = true;
+        List<AppointmentDTO> items = page.getItems() != null
+                ? page.getItems()
+                : Collections.<AppointmentDTO>emptyList();
+        if (localCache != null && !items.isEmpty()) {
+            AppExecutors.diskIO().execute(() -> localCache.write(items));
+        }
+        listener.onPageLoaded(items, firstPage, hasMore);
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.myapplication.data;
+
+import android.content.Context;
+import android.os.SystemClock;
+import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.RetrofitClient;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentChanges;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.utils.AppExecutors;
+import com.example.myapplication.utils.DateUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Shared entry point for appointment lists.
+ *
+ * Concurrent requests for the same query are coalesced into a single network call and the
+ * last result is kept for FRESHNESS_MS so screens opened together reuse it. The full list
+ * ("all") is kept in sync with a server change token: after the first download only the
+ * rows changed since the last sync are transferred and merged into the local copy.
+ * Results are written to {@link LocalStore} and read back from it first, so a cold start
+ * shows the last known data while the network request is running.
+ * {@link #getAppointmentIndex} serves the full list as day/patient/doctor buckets.
+ * {@link #clear()} starts a new session: answers to requests made before it are dropped,
+ * never cached, delivered or written to disk.
+ * All methods must be called from the main thread (Retrofit delivers callbacks there too).
+ */
+public class AppointmentRepository {
+
+    public static final String STATUS_ALL = "all";
+
+    private static final long FRESHNESS_MS = 30_000;
+
+    private static AppointmentRepository instance;
+
+    private final ApiService apiService;
+    private final LocalStore localStore;
+    private final Map<String, CacheEntry> cache = new HashMap<>();
+    private final Map<String, List<Listener>> pending = new HashMap<>();
+
+    // Local copy of the full list, keyed by appointment id, and the token it is current as of
+    private final Map<String, AppointmentDTO> syncedAppointments = new LinkedHashMap<>();
+    private String changeToken;
+    private boolean restoredFromDisk = false;
+    // Bumped by clear(); callbacks captured under an older value belong to a previous user
+    private int session = 0;
+
+    // Index of the last full list handed out, reused while that list is current
+    private List<AppointmentDTO> indexedList;
+    private AppointmentIndex index;
+
+    // May be called twice per request: first with data from disk, then with the server's answer
+    public interface Listener {
+        void onAppointmentsLoaded(List<AppointmentDTO> appointments);
+        void onAppointmentsError(String message);
+
+        // The data from disk; override to tell it apart from the server's answer
+        default void onStoredAppointmentsLoaded(List<AppointmentDTO> appointments) {
+            onAppointmentsLoaded(appointments);
+        }
+    }
+
+    // Same two-step delivery as Listener
+    public interface IndexListener {
+        void onIndexReady(AppointmentIndex index);
+        void onIndexError(String message);
+    }
+
+    private interface Loader {
+        void load(SessionListener callback);
+    }
+
+    // Handed to loaders, so they can tell whether their answer still belongs to this session
+    private abstract class SessionListener implements Listener {
+        private final int started;
+
+        SessionListener(int started) {
+            this.started = started;
+        }
+
+        boolean isCurrent() {
+            return started == session;
+        }
+    }
+
+    private static class CacheEntry {
+        final List<AppointmentDTO> data;
+        final long loadedAt;
+
+        CacheEntry(List<AppointmentDTO> data, long loadedAt) {
+            this.data = data;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private AppointmentRepository(ApiService apiService, LocalStore localStore) {
+        this.apiService = apiService;
+        this.localStore = localStore;
+    }
+
+    public static AppointmentRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new AppointmentRepository(RetrofitClient.getApiService(), LocalStore.getInstance(context));
+        }
+        return instance;
+    }
+
+    public void getAppointments(Listener listener) {
+        getAppointments(STATUS_ALL, false, listener);
+    }
+
+    public void getAppointments(String status, boolean forceRefresh, Listener listener) {
+        if (STATUS_ALL.equals(status)) {
+            fetch(status, forceRefresh, null, this::sync, listener);
+        } else {
+            fetch(status, forceRefresh, null, listLoader(() -> apiService.getAppointments(status)), listener);
+        }
+    }
+
+    // Appointments with from <= date < to, filtered by the server
+    public void getAppointmentsInRange(Date from, Date to, boolean forceRefresh, Listener listener) {
+        String fromParam = DateUtils.formatIso(from);
+        String toParam = DateUtils.formatIso(to);
+        String key = STATUS_ALL + "|" + fromParam + "|" + toParam;
+        Loader network = listLoader(() -> apiService.getAppointments(STATUS_ALL, fromParam, toParam));
+        fetch(key, forceRefresh,
+                () -> localStore.getAppointmentsInRange(fromParam, toParam),
+                callback -> network.load(new SessionListener(callback.started) {
+                    @Override
+                    public void onAppointmentsLoaded(List<AppointmentDTO> appointments) {
+                        // After a logout fetch drops the answer; it must not reach the database either
+                        if (!isCurrent()) return;
+                        AppExecutors.diskIO().execute(() -> localStore.replaceAppointmentsInRange(fromParam, toParam, appointments));
+                        callback.onAppointmentsLoaded(appointments);
+                    }
+
+                    @Override
+                    public void onAppointmentsError(String message) {
+                        callback.onAppointmentsError(message);
+                    }
+                }),
+                listener);
+    }
+
+    // The full list as an AppointmentIndex, built on the compute pool once per list version
+    public void getAppointmentIndex(IndexListener listener) {
+        int[] latest = {0};
+        getAppointments(new Listener() {
+            @Override
+            public void onAppointmentsLoaded(List<AppointmentDTO> appointments) {
+                int delivery = ++latest[0];
+                indexFor(appointments, built -> {
+                    // A later delivery (server after disk) may finish indexing first
+                    if (delivery == latest[0]) listener.onIndexReady(built);
+                });
+            }
+
+            @Override
+            public void onAppointmentsError(String message) {
+                listener.onIndexError(message);
+            }
+        });
+    }
+
+    // Marks cached lists stale (e.g. after creating an appointment); the next full read is a delta
+    public void invalidate() {
+        cache.clear();
+    }
+
+    // Forgets everything, including the synced copy and the database (e.g. on logout)
+    public void clear() {
+        session++;
+        cache.clear();
+        pending.clear();
+        syncedAppointments.clear();
+        changeToken = null;
+        indexedList = null;
+        index = null;
+        restoredFromDisk = true;
+        AppExecutors.diskIO().execute(localStore::clear);
+    }
+
+    private void indexFor(List<AppointmentDTO> appointments, Consumer<AppointmentIndex> callback) {
+        if (appointments == indexedList) {
+            callback.accept(index);
+            return;
+        }
+        int started = session;
+        AppExecutors.compute().execute(() -> {
+            AppointmentIndex built = AppointmentIndex.build(appointments);
+            AppExecutors.mainThread().execute(() -> {
+                if (started != session) return;
+                indexedList = appointments;
+                index = built;
+                callback.accept(built);
+            });
+        });
+    }
+
+    // localRead (optional) runs on the disk thread and is shown until the network answers
+    private void fetch(String key, boolean forceRefresh, Supplier<List<AppointmentDTO>> localRead, Loader loader, Listener listener) {
+        CacheEntry entry = cache.get(key);
+        if (!forceRefresh && entry != null && SystemClock.elapsedRealtime() - entry.loadedAt < FRESHNESS_MS) {
+            listener.onAppointmentsLoaded(entry.data);
+            return;
+        }
+
+        List<Listener> waiting = pending.get(key);
+        if (waiting != null) {
+            // A request for this query is already in flight, just wait for it
+            waiting.add(listener);
+            return;
+        }
+
+        waiting = new ArrayList<>();
+        waiting.add(listener);
+        pending.put(key, waiting);
+        int started = session;
+
+        if (localRead != null) {
+            AppExecutors.diskIO().execute(() -> {
+                List<AppointmentDTO> local = localRead.get();
+                AppExecutors.mainThread().execute(() -> {
+                    if (started == session && !local.isEmpty()) {
+                        notifyPending(key, Collections.unmodifiableList(local));
+                    }
+                });
+            });
+        }
+
+        loader.load(new SessionListener(started) {
+            @Override
+            public void onAppointmentsLoaded(List<AppointmentDTO> appointments) {
+                if (!isCurrent()) return;
+                // Every screen receives the same instance, so nobody may modify it
+                List<AppointmentDTO> data = Collections.unmodifiableList(appointments);
+                cache.put(key, new CacheEntry(data, SystemClock.elapsedRealtime()));
+                deliver(key, data);
+            }
+
+            @Override
+            public void onAppointmentsError(String message) {
+                if (!isCurrent()) return;
+                fail(key, message);
+            }
+        });
+    }
+
+    private Loader listLoader(Supplier<Call<ApiResponse<List<AppointmentDTO>>>> request) {
+        return callback -> request.get().enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    List<AppointmentDTO> data = response.body().getData();
+                    callback.onAppointmentsLoaded(data != null ? data : new ArrayList<>());
+                } else {
+                    callback.onAppointmentsError("Erreur lors du chargement des rendez-vous");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
+                callback.onAppointmentsError("Erreur réseau: " + t.getMessage());
+            }
+        });
+    }
+
+    private void sync(SessionListener callback) {
+        if (restoredFromDisk) {
+            syncFromNetwork(callback);
+            return;
+        }
+
+        // First sync in this process: start from the stored copy so the server only sends the delta
+        restoredFromDisk = true;
+        AppExecutors.diskIO().execute(() -> {
+            LocalStore.AppointmentSnapshot saved = localStore.readAppointmentSnapshot();
+            AppExecutors.mainThread().execute(() -> {
+                if (!callback.isCurrent()) return;
+                if (saved != null && changeToken == null) {
+                    for (AppointmentDTO appointment : saved.appointments) {
+                        syncedAppointments.put(appointment.getId(), appointment);
+                    }
+                    changeToken = saved.changeToken;
+                    notifyPending(STATUS_ALL, Collections.unmodifiableList(snapshot()));
+                }
+                syncFromNetwork(callback);
+            });
+        });
+    }
+
+    private void syncFromNetwork(SessionListener callback) {
+        apiService.getAppointmentChanges(changeToken).enqueue(new Callback<ApiResponse<AppointmentChanges>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<AppointmentChanges>> call, Response<ApiResponse<AppointmentChanges>> response) {
+                // Answered for the user before a logout: neither memory nor the database may take it
+                if (!callback.isCurrent()) return;
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null) {
+                    AppointmentChanges changes = response.body().getData();
+                    applyChanges(changes);
+                    AppExecutors.diskIO().execute(() -> localStore.applyAppointmentChanges(changes));
+                    callback.onAppointmentsLoaded(snapshot());
+                } else {
+                    callback.onAppointmentsError("Erreur lors du chargement des rendez-vous");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<AppointmentChanges>> call, Throwable t) {
+                if (!callback.isCurrent()) return;
+                callback.onAppointmentsError("Erreur réseau: " + t.getMessage());
+            }
+        });
+    }
+
+    private void applyChanges(AppointmentChanges changes) {
+        if (changes.isReset()) {
+            syncedAppointments.clear();
+        }
+        if (changes.getDeletedIds() != null) {
+            for (String id : changes.getDeletedIds()) {
+                syncedAppointments.remove(id);
+            }
+        }
+        if (changes.getUpserted() != null) {
+            for (AppointmentDTO appointment : changes.getUpserted()) {
+                syncedAppointments.put(appointment.getId(), appointment);
+            }
+        }
+        changeToken = changes.getToken();
+    }
+
+    // Same order as the server's full list: by appointment date, unparseable dates last
+    private List<AppointmentDTO> snapshot() {
+        List<AppointmentDTO> list = new ArrayList<>(syncedAppointments.values());
+        Collections.sort(list, Comparator.comparingLong(appointment -> {
+            long time = appointment.getAppointmentTime();
+            return time == DateUtils.INVALID_TIME ? Long.MAX_VALUE : time;
+        }));
+        return list;
+    }
+
+    // Preliminary data: listeners stay registered for the final answer
+    private void notifyPending(String key, List<AppointmentDTO> data) {
+        List<Listener> listeners = pending.get(key);
+        if (listeners == null) return;
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onStoredAppointmentsLoaded(data);
+        }
+    }
+
+    private void deliver(String key, List<AppointmentDTO> data) {
+        List<Listener> listeners = pending.remove(key);
+        if (listeners == null) return;
+        for (Listener listener : listeners) {
+            listener.onAppointmentsLoaded(data);
+        }
+    }
+
+    private void fail(String key, String message) {
+        List<Listener> listeners = pending.remove(key);
+        if (listeners == null) return;
+        for (Listener listener : listeners) {
+            listener.onAppointmentsError(message);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.myapplication.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * On-device copy of what the API returned last, so screens can render before the network answers.
+ * Columns mirror the DTO fields; everything here can be thrown away and re-downloaded.
+ */
+public class ClinicDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "clinic.db";
+    private static final int DATABASE_VERSION = 2;
+
+    // The caller's own appointments, as /changes and the date-range queries keep them
+    public static final String TABLE_APPOINTMENTS = "appointments";
+    // First pages of the paged lists, e.g. a patient's history with other doctors' visits; never
+    // synced, so they are kept out of TABLE_APPOINTMENTS and its snapshot
+    public static final String TABLE_APPOINTMENT_PAGES = "appointment_pages";
+    public static final String TABLE_PATIENTS = "patients";
+    public static final String TABLE_DOCTORS = "doctors";
+    public static final String TABLE_SYNC_STATE = "sync_state";
+
+    public ClinicDatabase(Context context) {
+        super(context.getApplicationContext(), DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        createAppointmentTable(db, TABLE_APPOINTMENTS);
+        db.execSQL("CREATE INDEX idx_appointments_day ON " + TABLE_APPOINTMENTS + " (day, appointment_date)");
+        db.execSQL("CREATE INDEX idx_appointments_patient ON " + TABLE_APPOINTMENTS + " (patient_id, appointment_date)");
+        db.execSQL("CREATE INDEX idx_appointments_doctor ON " + TABLE_APPOINTMENTS + " (doctor_id, appointment_date)");
+
+        createAppointmentTable(db, TABLE_APPOINTMENT_PAGES);
+        db.execSQL("CREATE INDEX idx_appointment_pages_date ON " + TABLE_APPOINTMENT_PAGES + " (appointment_date)");
+        db.execSQL("CREATE INDEX idx_appointment_pages_patient ON " + TABLE_APPOINTMENT_PAGES + " (patient_id, appointment_date)");
+
+        db.execSQL("CREATE TABLE " + TABLE_PATIENTS + " ("
+                + "id TEXT PRIMARY KEY, "
+                + "email TEXT, "
+                + "first_name TEXT, "
+                + "last_name TEXT, "
+                + "phone TEXT, "
+                + "date_of_birth TEXT, "
+                + "address TEXT, "
+                + "emergency_contact_name TEXT, "
+                + "emergency_contact_phone TEXT, "
+                + "doctor_notes TEXT, "
+                + "registration_date TEXT)");
+
+        db.execSQL("CREATE TABLE " + TABLE_DOCTORS + " ("
+                + "id TEXT PRIMARY KEY, "
+                + "name TEXT, "
+                + "specialization TEXT)");
+
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + "key TEXT PRIMARY KEY, "
+                + "value TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Pure cache: rebuild from scratch. Version 1 wrote paged rows into the synced table,
+        // so it has to go anyway
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_APPOINTMENTS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_APPOINTMENT_PAGES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_PATIENTS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_DOCTORS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SYNC_STATE);
+        onCreate(db);
+    }
+
+    private static void createAppointmentTable(SQLiteDatabase db, String table) {
+        db.execSQL("CREATE TABLE " + table + " ("
+                + "id TEXT PRIMARY KEY, "
+                + "patient_id TEXT, "
+                + "doctor_id TEXT, "
+                + "appointment_date TEXT, "
+                + "day TEXT, " // yyyy-MM-dd part of appointment_date
+                + "reason TEXT, "
+                + "notes TEXT, "
+                + "doctor_notes TEXT, "
+                + "status TEXT, "
+                + "patient_name TEXT, "
+                + "doctor_name TEXT, "
+                + "doctor_specialization TEXT)");
+    }
+}
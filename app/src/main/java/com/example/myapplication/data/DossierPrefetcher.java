@@ -0,0 +1,194 @@
+package com.example.myapplication.data;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.RetrofitClient;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.PatientDossierDTO;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Patient dossiers fetched before they are opened, so the dossier screen can render at once.
+ * The patient list asks for the row being pressed and, at lower priority, for the rows that
+ * stay on screen; at most {@link #MAX_IN_FLIGHT} requests run at a time so prefetching never
+ * crowds out what the user is waiting for. Results, and dossiers loaded by the screen itself,
+ * are kept in a small LRU for {@link #MAX_AGE_MS}. Main thread only.
+ */
+public final class DossierPrefetcher {
+
+    private static final int CACHE_SIZE = 16;
+    private static final long MAX_AGE_MS = 60_000;
+    private static final int MAX_IN_FLIGHT = 2;
+    // Older presses are unlikely to be opened; a row pressed again moves back to the front
+    private static final int MAX_PRESSED = MAX_IN_FLIGHT;
+    // Rows on screen beyond this are not worth the traffic
+    private static final int MAX_VISIBLE = 6;
+    // History rows fetched ahead; the dossier pages on from the returned cursor
+    private static final int PAGE_SIZE = 20;
+
+    private static final DossierPrefetcher instance = new DossierPrefetcher();
+
+    private final ApiService apiService = RetrofitClient.getApiService();
+    private final LruCache<String, Entry> cache = new LruCache<>(CACHE_SIZE);
+    private final Map<String, Call<ApiResponse<PatientDossierDTO>>> inFlight = new HashMap<>();
+    private final Map<String, List<Listener>> waiting = new HashMap<>();
+    // Pressed rows go first; the visible ones are replaced each time the list settles
+    private final ArrayDeque<String> pressed = new ArrayDeque<>();
+    private final ArrayDeque<String> visible = new ArrayDeque<>();
+
+    private static final class Entry {
+        final PatientDossierDTO dossier;
+        final long fetchedAt = SystemClock.elapsedRealtime();
+
+        Entry(PatientDossierDTO dossier) {
+            this.dossier = dossier;
+        }
+    }
+
+    public interface Listener {
+        void onDossierLoaded(PatientDossierDTO dossier);
+        // The caller fetches the dossier itself
+        void onDossierFailed();
+    }
+
+    private DossierPrefetcher() {}
+
+    public static DossierPrefetcher getInstance() {
+        return instance;
+    }
+
+    // The row under the user's finger: likely opened next
+    public void prefetchPressed(String patientId) {
+        if (patientId == null || isFreshOrLoading(patientId)) return;
+        pressed.remove(patientId);
+        pressed.addFirst(patientId);
+        while (pressed.size() > MAX_PRESSED) pressed.pollLast();
+        pump();
+    }
+
+    // Rows that stayed on screen, in display order; drops what was queued for earlier ones
+    public void prefetchVisible(List<String> patientIds) {
+        visible.clear();
+        for (String patientId : patientIds) {
+            if (visible.size() >= MAX_VISIBLE) break;
+            if (patientId != null && !isFreshOrLoading(patientId)) visible.addLast(patientId);
+        }
+        pump();
+    }
+
+    // The dossier if fetched within MAX_AGE_MS and not invalidated since, else null
+    public PatientDossierDTO get(String patientId) {
+        Entry entry = cache.get(patientId);
+        if (entry == null) return null;
+        if (SystemClock.elapsedRealtime() - entry.fetchedAt >= MAX_AGE_MS) {
+            cache.remove(patientId);
+            return null;
+        }
+        return entry.dossier;
+    }
+
+    /**
+     * Hands over a prefetch still running for the patient: the listener gets its outcome
+     * and true is returned. False when none runs. A caller going away before the outcome
+     * must {@link #stopAwaiting} so it is not kept until the request ends.
+     */
+    public boolean await(String patientId, Listener listener) {
+        if (!inFlight.containsKey(patientId)) return false;
+        List<Listener> listeners = waiting.get(patientId);
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            waiting.put(patientId, listeners);
+        }
+        listeners.add(listener);
+        return true;
+    }
+
+    public void stopAwaiting(Listener listener) {
+        for (Iterator<List<Listener>> it = waiting.values().iterator(); it.hasNext(); ) {
+            List<Listener> listeners = it.next();
+            if (listeners.remove(listener) && listeners.isEmpty()) it.remove();
+        }
+    }
+
+    // A dossier the screen loaded itself, so reopening the patient is instant too
+    public void put(String patientId, PatientDossierDTO dossier) {
+        cache.put(patientId, new Entry(dossier));
+    }
+
+    // After a change to the patient's profile, notes or appointments
+    public void invalidate(String patientId) {
+        if (patientId != null) cache.remove(patientId);
+    }
+
+    // Forgets everything, e.g. on logout; listeners still waiting are not called
+    public void clear() {
+        for (Call<ApiResponse<PatientDossierDTO>> call : inFlight.values()) {
+            call.cancel();
+        }
+        inFlight.clear();
+        waiting.clear();
+        pressed.clear();
+        visible.clear();
+        cache.evictAll();
+    }
+
+    private boolean isFreshOrLoading(String patientId) {
+        return inFlight.containsKey(patientId) || get(patientId) != null;
+    }
+
+    private void pump() {
+        while (inFlight.size() < MAX_IN_FLIGHT) {
+            String patientId = !pressed.isEmpty() ? pressed.pollFirst() : visible.pollFirst();
+            if (patientId == null) return;
+            if (!isFreshOrLoading(patientId)) fetch(patientId);
+        }
+    }
+
+    private void fetch(String patientId) {
+        Call<ApiResponse<PatientDossierDTO>> call = apiService.getPatientDossier(patientId, PAGE_SIZE);
+        inFlight.put(patientId, call);
+        call.enqueue(new Callback<ApiResponse<PatientDossierDTO>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<PatientDossierDTO>> call, Response<ApiResponse<PatientDossierDTO>> response) {
+                if (inFlight.get(patientId) != call) return;
+                PatientDossierDTO dossier = null;
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    dossier = response.body().getData();
+                }
+                finish(patientId, dossier);
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<PatientDossierDTO>> call, Throwable t) {
+                if (inFlight.get(patientId) != call) return;
+                finish(patientId, null);
+            }
+        });
+    }
+
+    private void finish(String patientId, PatientDossierDTO dossier) {
+        inFlight.remove(patientId);
+        if (dossier != null) put(patientId, dossier);
+
+        List<Listener> listeners = waiting.remove(patientId);
+        if (listeners != null) {
+            for (Listener listener : listeners) {
+                if (dossier != null) {
+                    listener.onDossierLoaded(dossier);
+                } else {
+                    listener.onDossierFailed();
+                }
+            }
+        }
+        pump();
+    }
+}
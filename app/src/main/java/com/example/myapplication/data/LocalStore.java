@@ -0,0 +1,289 @@
+package com.example.myapplication.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import com.example.myapplication.api.models.AppointmentChanges;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.DoctorDTO;
+import com.example.myapplication.api.models.PatientDTO;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blocking reads and writes on {@link ClinicDatabase}.
+ * Every method must run on {@link com.example.myapplication.utils.AppExecutors#diskIO()}.
+ */
+public class LocalStore {
+
+    private static final String KEY_APPOINTMENTS_TOKEN = "appointments_token";
+
+    private static final String APPOINTMENT_COLUMNS = "id, patient_id, doctor_id, appointment_date, reason, notes, "
+            + "doctor_notes, status, patient_name, doctor_name, doctor_specialization";
+
+    private static LocalStore instance;
+
+    private final ClinicDatabase database;
+
+    public static class AppointmentSnapshot {
+        public final List<AppointmentDTO> appointments;
+        public final String changeToken;
+
+        AppointmentSnapshot(List<AppointmentDTO> appointments, String changeToken) {
+            this.appointments = appointments;
+            this.changeToken = changeToken;
+        }
+    }
+
+    // Tests use their own instance
+    LocalStore(Context context) {
+        database = new ClinicDatabase(context);
+    }
+
+    public static synchronized LocalStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new LocalStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Appointments
+
+    // The synced full list with the change token it matches, or null if nothing was synced yet
+    public AppointmentSnapshot readAppointmentSnapshot() {
+        String token = readSyncValue(KEY_APPOINTMENTS_TOKEN);
+        if (token == null) return null;
+        return new AppointmentSnapshot(queryAppointments(ClinicDatabase.TABLE_APPOINTMENTS,
+                null, null, "appointment_date ASC", null), token);
+    }
+
+    public void applyAppointmentChanges(AppointmentChanges changes) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (changes.isReset()) {
+                db.delete(ClinicDatabase.TABLE_APPOINTMENTS, null, null);
+            }
+            if (changes.getDeletedIds() != null) {
+                for (String id : changes.getDeletedIds()) {
+                    db.delete(ClinicDatabase.TABLE_APPOINTMENTS, "id = ?", new String[]{id});
+                }
+            }
+            if (changes.getUpserted() != null) {
+                for (AppointmentDTO appointment : changes.getUpserted()) {
+                    insertAppointment(db, ClinicDatabase.TABLE_APPOINTMENTS, appointment);
+                }
+            }
+            writeSyncValue(db, KEY_APPOINTMENTS_TOKEN, changes.getToken());
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Rows of a paged list; they stay out of the synced set and its snapshot
+    public void savePagedAppointments(List<AppointmentDTO> appointments) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (AppointmentDTO appointment : appointments) {
+                insertAppointment(db, ClinicDatabase.TABLE_APPOINTMENT_PAGES, appointment);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // from inclusive, to exclusive, both yyyy-MM-dd'T'HH:mm:ss
+    public List<AppointmentDTO> getAppointmentsInRange(String from, String to) {
+        // The day bounds let SQLite use idx_appointments_day, the date bounds make it exact
+        return queryAppointments(ClinicDatabase.TABLE_APPOINTMENTS,
+                "day >= ? AND day <= ? AND appointment_date >= ? AND appointment_date < ?",
+                new String[]{dayOf(from), dayOf(to), from, to},
+                "appointment_date ASC", null);
+    }
+
+    // Replaces what is stored for a window with the server's answer for that window
+    public void replaceAppointmentsInRange(String from, String to, List<AppointmentDTO> appointments) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(ClinicDatabase.TABLE_APPOINTMENTS,
+                    "day >= ? AND day <= ? AND appointment_date >= ? AND appointment_date < ?",
+                    new String[]{dayOf(from), dayOf(to), from, to});
+            for (AppointmentDTO appointment : appointments) {
+                insertAppointment(db, ClinicDatabase.TABLE_APPOINTMENTS, appointment);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // From the paged lists: the patient's history pages, whoever the doctor
+    public List<AppointmentDTO> getAppointmentsForPatient(String patientId, int limit) {
+        return queryAppointments(ClinicDatabase.TABLE_APPOINTMENT_PAGES, "patient_id = ?", new String[]{patientId},
+                "appointment_date DESC", String.valueOf(limit));
+    }
+
+    // From the paged lists
+    public List<AppointmentDTO> getRecentAppointments(int limit) {
+        return queryAppointments(ClinicDatabase.TABLE_APPOINTMENT_PAGES, null, null,
+                "appointment_date DESC", String.valueOf(limit));
+    }
+
+    // Patients
+
+    public PatientDTO getPatient(String id) {
+        try (Cursor cursor = database.getReadableDatabase().query(ClinicDatabase.TABLE_PATIENTS, null,
+                "id = ?", new String[]{id}, null, null, null)) {
+            if (!cursor.moveToFirst()) return null;
+            PatientDTO patient = new PatientDTO();
+            patient.setId(getString(cursor, "id"));
+            patient.setEmail(getString(cursor, "email"));
+            patient.setFirstName(getString(cursor, "first_name"));
+            patient.setLastName(getString(cursor, "last_name"));
+            patient.setPhone(getString(cursor, "phone"));
+            patient.setDateOfBirth(getString(cursor, "date_of_birth"));
+            patient.setAddress(getString(cursor, "address"));
+            patient.setEmergencyContactName(getString(cursor, "emergency_contact_name"));
+            patient.setEmergencyContactPhone(getString(cursor, "emergency_contact_phone"));
+            patient.setDoctorNotes(getString(cursor, "doctor_notes"));
+            patient.setRegistrationDate(getString(cursor, "registration_date"));
+            return patient;
+        }
+    }
+
+    public void savePatient(PatientDTO patient) {
+        ContentValues values = new ContentValues();
+        values.put("id", patient.getId());
+        values.put("email", patient.getEmail());
+        values.put("first_name", patient.getFirstName());
+        values.put("last_name", patient.getLastName());
+        values.put("phone", patient.getPhone());
+        values.put("date_of_birth", patient.getDateOfBirth());
+        values.put("address", patient.getAddress());
+        values.put("emergency_contact_name", patient.getEmergencyContactName());
+        values.put("emergency_contact_phone", patient.getEmergencyContactPhone());
+        values.put("doctor_notes", patient.getDoctorNotes());
+        values.put("registration_date", patient.getRegistrationDate());
+        database.getWritableDatabase().insertWithOnConflict(ClinicDatabase.TABLE_PATIENTS, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // Notes can be known before the rest of the profile, so only touch an existing row
+    public void savePatientNotes(String patientId, String notes) {
+        ContentValues values = new ContentValues();
+        values.put("doctor_notes", notes);
+        database.getWritableDatabase().update(ClinicDatabase.TABLE_PATIENTS, values, "id = ?", new String[]{patientId});
+    }
+
+    // Doctors
+
+    public List<DoctorDTO> getDoctors() {
+        List<DoctorDTO> doctors = new ArrayList<>();
+        try (Cursor cursor = database.getReadableDatabase().query(ClinicDatabase.TABLE_DOCTORS, null,
+                null, null, null, null, "name ASC")) {
+            while (cursor.moveToNext()) {
+                doctors.add(new DoctorDTO(
+                        getString(cursor, "id"),
+                        getString(cursor, "name"),
+                        getString(cursor, "specialization")));
+            }
+        }
+        return doctors;
+    }
+
+    public void replaceDoctors(List<DoctorDTO> doctors) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(ClinicDatabase.TABLE_DOCTORS, null, null);
+            for (DoctorDTO doctor : doctors) {
+                ContentValues values = new ContentValues();
+                values.put("id", doctor.getId());
+                values.put("name", doctor.getName());
+                values.put("specialization", doctor.getSpecialization());
+                db.insertWithOnConflict(ClinicDatabase.TABLE_DOCTORS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Medical data must not outlive the session
+    public void clear() {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(ClinicDatabase.TABLE_APPOINTMENTS, null, null);
+            db.delete(ClinicDatabase.TABLE_APPOINTMENT_PAGES, null, null);
+            db.delete(ClinicDatabase.TABLE_PATIENTS, null, null);
+            db.delete(ClinicDatabase.TABLE_DOCTORS, null, null);
+            db.delete(ClinicDatabase.TABLE_SYNC_STATE, null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private List<AppointmentDTO> queryAppointments(String table, String selection, String[] args, String orderBy,
+                                                   String limit) {
+        List<AppointmentDTO> appointments = new ArrayList<>();
+        String sql = "SELECT " + APPOINTMENT_COLUMNS + " FROM " + table
+                + (selection != null ? " WHERE " + selection : "")
+                + " ORDER BY " + orderBy
+                + (limit != null ? " LIMIT " + limit : "");
+        try (Cursor cursor = database.getReadableDatabase().rawQuery(sql, args)) {
+            while (cursor.moveToNext()) {
+                appointments.add(new AppointmentDTO(
+                        cursor.getString(0), cursor.getString(1), cursor.getString(2), cursor.getString(3),
+                        cursor.getString(4), cursor.getString(5), cursor.getString(6), cursor.getString(7),
+                        cursor.getString(8), cursor.getString(9), cursor.getString(10)));
+            }
+        }
+        return appointments;
+    }
+
+    private void insertAppointment(SQLiteDatabase db, String table, AppointmentDTO appointment) {
+        ContentValues values = new ContentValues();
+        values.put("id", appointment.getId());
+        values.put("patient_id", appointment.getPatientId());
+        values.put("doctor_id", appointment.getDoctorId());
+        values.put("appointment_date", appointment.getAppointmentDate());
+        values.put("day", dayOf(appointment.getAppointmentDate()));
+        values.put("reason", appointment.getReason());
+        values.put("notes", appointment.getNotes());
+        values.put("doctor_notes", appointment.getDoctorNotes());
+        values.put("status", appointment.getStatus());
+        values.put("patient_name", appointment.getPatientName());
+        values.put("doctor_name", appointment.getDoctorName());
+        values.put("doctor_specialization", appointment.getDoctorSpecialization());
+        db.insertWithOnConflict(table, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private String readSyncValue(String key) {
+        try (Cursor cursor = database.getReadableDatabase().query(ClinicDatabase.TABLE_SYNC_STATE,
+                new String[]{"value"}, "key = ?", new String[]{key}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private void writeSyncValue(SQLiteDatabase db, String key, String value) {
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        db.insertWithOnConflict(ClinicDatabase.TABLE_SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static String dayOf(String isoDate) {
+        return isoDate != null && isoDate.length() >= 10 ? isoDate.substring(0, 10) : isoDate;
+    }
+
+    private static String getString(Cursor cursor, String column) {
+        return cursor.getString(cursor.getColumnIndexOrThrow(column));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.myapplication.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.DoctorPatientDTO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Server-side patient search behind a search box. Main thread only.
+ * Keystrokes are debounced and at most one request is live: a new query cancels the call in
+ * flight, and only the answer to the latest query is delivered, so results never arrive out
+ * of order. Recent answers are cached; a query that extends a cached one whose answer was
+ * complete (fewer rows than the limit) is filtered from it without a request, using the same
+ * rule as the server so the result is what the server would have sent.
+ */
+public class PatientTypeahead {
+
+    public static final int LIMIT = 50;
+    private static final long DEBOUNCE_MS = 250;
+    private static final int CACHE_SIZE = 32;
+
+    private final ApiService apiService;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable sendRunnable = this::send;
+    // Keyed by the trimmed query, lower-cased the way the server's LIKE compares it
+    private final LruCache<String, List<DoctorPatientDTO>> cache = new LruCache<>(CACHE_SIZE);
+
+    private String query = "";
+    private String key = "";
+    private boolean pending;
+    private Call<ApiResponse<List<DoctorPatientDTO>>> inFlight;
+
+    public interface Listener {
+        void onResults(String query, List<DoctorPatientDTO> patients);
+        void onError(String query, String message);
+    }
+
+    public PatientTypeahead(ApiService apiService, Listener listener) {
+        this.apiService = apiService;
+        this.listener = listener;
+    }
+
+    public void search(String query) {
+        String key = foldCase(query.trim());
+        // Same search still on its way
+        if (key.equals(this.key) && (pending || inFlight != null)) return;
+
+        cancel();
+        this.query = query;
+        this.key = key;
+
+        if (key.isEmpty()) {
+            listener.onResults(query, Collections.<DoctorPatientDTO>emptyList());
+            return;
+        }
+
+        List<DoctorPatientDTO> cached = fromCache(key);
+        if (cached != null) {
+            listener.onResults(query, cached);
+            return;
+        }
+
+        pending = true;
+        handler.postDelayed(sendRunnable, DEBOUNCE_MS);
+    }
+
+    // Drops the pending or running search; nothing is delivered for it
+    public void cancel() {
+        handler.removeCallbacks(sendRunnable);
+        pending = false;
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    public void clearCache() {
+        cache.evictAll();
+    }
+
+    private List<DoctorPatientDTO> fromCache(String key) {
+        List<DoctorPatientDTO> exact = cache.get(key);
+        if (exact != null) return exact;
+
+        // Longest cached prefix holding every match: a longer query can only narrow it
+        for (int end = key.length() - 1; end > 0; end--) {
+            List<DoctorPatientDTO> shorter = cache.get(key.substring(0, end));
+            if (shorter == null) continue;
+            if (shorter.size() >= LIMIT) return null;
+            List<DoctorPatientDTO> narrowed = narrow(shorter, key);
+            if (narrowed != null) cache.put(key, narrowed);
+            return narrowed;
+        }
+        return null;
+    }
+
+    /**
+     * The rows of a complete answer that the server would return for {@code key}, or null if
+     * that cannot be told locally. Mirrors DoctorPatientQueries.SearchPatientsAsync: a prefix
+     * of the first name, the last name, "first last" or "last first", case-insensitive for
+     * ASCII only and accent-sensitive, like SQLite's LIKE. Rows only carry "first last", so
+     * every name must split on exactly one space.
+     */
+    static List<DoctorPatientDTO> narrow(List<DoctorPatientDTO> complete, String key) {
+        List<DoctorPatientDTO> narrowed = new ArrayList<>();
+        for (DoctorPatientDTO patient : complete) {
+            if (patient.getName() == null) return null;
+            String name = foldCase(patient.getName());
+            int space = name.indexOf(' ');
+            if (space < 0 || name.indexOf(' ', space + 1) >= 0) return null;
+            String first = name.substring(0, space);
+            String last = name.substring(space + 1);
+            // A first-name prefix is also a prefix of "first last"
+            if (name.startsWith(key) || last.startsWith(key) || (last + " " + first).startsWith(key)) {
+                narrowed.add(patient);
+            }
+        }
+        return Collections.unmodifiableList(narrowed);
+    }
+
+    // SQLite's LIKE only folds ASCII letters, so "É" and "é" stay distinct
+    static String foldCase(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            builder.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return builder.toString();
+    }
+
+    private void send() {
+        pending = false;
+        String query = this.query;
+        String key = this.key;
+        Call<ApiResponse<List<DoctorPatientDTO>>> call = apiService.searchPatients(query.trim(), LIMIT);
+        inFlight = call;
+        call.enqueue(new Callback<ApiResponse<List<DoctorPatientDTO>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<List<DoctorPatientDTO>>> call, Response<ApiResponse<List<DoctorPatientDTO>>> response) {
+                if (call != inFlight) return;
+                inFlight = null;
+
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    List<DoctorPatientDTO> patients = response.body().getData() != null
+                            ? Collections.unmodifiableList(response.body().getData())
+                            : Collections.<DoctorPatientDTO>emptyList();
+                    cache.put(key, patients);
+                    listener.onResults(query, patients);
+                } else {
+                    listener.onError(query, "Erreur lors de la recherche");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<List<DoctorPatientDTO>>> call, Throwable t) {
+                if (call != inFlight) return;
+                inFlight = null;
+                listener.onError(query, "Erreur réseau");
+            }
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.myapplication.data;
+
+import android.os.SystemClock;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides when data already on screen is worth fetching again, so coming back to a screen
+ * does not reload everything. Each {@link Resource} has a staleness budget: data younger than
+ * that is kept. Once a fetch starts, the same data is not asked for again within the
+ * resource's minimum interval, even if that fetch failed, so bouncing between screens on a
+ * bad network does not hammer the server. A mutation invalidates what it affects, which is
+ * then due at the next check whatever its age.
+ * Entries are kept per resource and scope (e.g. one agenda day). Main thread only.
+ */
+public final class RefreshScheduler {
+
+    public enum Resource {
+        // Appointment lists, agenda days and the doctor's summary
+        APPOINTMENTS(60_000, 10_000),
+        // Clerk dashboard counters
+        DASHBOARD(60_000, 10_000),
+        // The doctor's patient list, with counts and last visits
+        PATIENTS(5 * 60_000, 30_000),
+        // One patient's profile, scoped by patient id
+        PATIENT(5 * 60_000, 30_000);
+
+        final long staleAfterMs;
+        final long minIntervalMs;
+
+        Resource(long staleAfterMs, long minIntervalMs) {
+            this.staleAfterMs = staleAfterMs;
+            this.minIntervalMs = minIntervalMs;
+        }
+    }
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private static final RefreshScheduler instance = new RefreshScheduler();
+
+    // Monotonic milliseconds; SystemClock.elapsedRealtime() outside tests
+    private final LongSupplier clock;
+    private final Map<Resource, Map<String, State>> states = new EnumMap<>(Resource.class);
+
+    private static final class State {
+        long startedAt = NEVER;
+        // Last successful fetch; NEVER after a failure, so the next check after the interval retries
+        long refreshedAt = NEVER;
+        boolean invalidated;
+    }
+
+    private RefreshScheduler() {
+        this(SystemClock::elapsedRealtime);
+    }
+
+    RefreshScheduler(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static RefreshScheduler getInstance() {
+        return instance;
+    }
+
+    public boolean needsRefresh(Resource resource) {
+        return needsRefresh(resource, null);
+    }
+
+    public boolean needsRefresh(Resource resource, String scope) {
+        State state = find(resource, scope);
+        if (state == null || state.invalidated) return true;
+        long now = clock.getAsLong();
+        if (state.startedAt != NEVER && now - state.startedAt < resource.minIntervalMs) return false;
+        return state.refreshedAt == NEVER || now - state.refreshedAt >= resource.staleAfterMs;
+    }
+
+    public void refreshStarted(Resource resource, String scope) {
+        State state = get(resource, scope);
+        state.startedAt = clock.getAsLong();
+        // A mutation made after this point invalidates again
+        state.invalidated = false;
+    }
+
+    public void refreshSucceeded(Resource resource, String scope) {
+        get(resource, scope).refreshedAt = clock.getAsLong();
+    }
+
+    public void refreshFailed(Resource resource, String scope) {
+        get(resource, scope).refreshedAt = NEVER;
+    }
+
+    // After a mutation: every scope of these resources is due at its next check
+    public void invalidate(Resource... resources) {
+        for (Resource resource : resources) {
+            Map<String, State> scopes = states.get(resource);
+            if (scopes == null) continue;
+            for (State state : scopes.values()) {
+                state.invalidated = true;
+            }
+        }
+    }
+
+    public void invalidate(Resource resource, String scope) {
+        State state = find(resource, scope);
+        if (state != null) state.invalidated = true;
+    }
+
+    // Forgets everything, e.g. on logout
+    public void clear() {
+        states.clear();
+    }
+
+    private State find(Resource resource, String scope) {
+        Map<String, State> scopes = states.get(resource);
+        return scopes != null ? scopes.get(scope != null ? scope : "") : null;
+    }
+
+    private State get(Resource resource, String scope) {
+        Map<String, State> scopes = states.get(resource);
+        if (scopes == null) {
+            scopes = new HashMap<>();
+            states.put(resource, scopes);
+        }
+        String key = scope != null ? scope : "";
+        State state = scopes.get(key);
+        if (state == null) {
+            state = new State();
+            scopes.put(key, state);
+        }
+        return state;
+    }
+}
@@ -11,24 +11,19 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.AppointmentsAdapter;
 import com.example.myapplication.R;
-import com.example.myapplication.api.ApiService;
-import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
 import com.example.myapplication.api.models.AppointmentDTO;
-import java.text.SimpleDateFormat;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.DateUtils;
+import com.example.myapplication.viewmodels.AgendaViewModel;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class AgendaFragment extends Fragment {
 
@@ -38,9 +33,9 @@ public class AgendaFragment extends Fragment {
     private View emptyStateLayout;
     private AppointmentsAdapter adapter;
     private SessionManager sessionManager;
-    private ApiService apiService;
-    private List<AppointmentDTO> allAppointments = new ArrayList<>();
-    private Date selectedDate;
+    private AgendaViewModel viewModel;
+    // False until the first resume, which follows a load or a rotation that kept the data
+    private boolean refreshOnResume = false;
 
     @Nullable
     @Override
@@ -48,7 +43,6 @@ public class AgendaFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_agenda, container, false);
 
         sessionManager = new SessionManager(requireContext());
-        apiService = RetrofitClient.getApiService();
 
         // Initialize views
         calendarView = view.findViewById(R.id.calendarView);
@@ -61,73 +55,52 @@ public class AgendaFragment extends Fragment {
         adapter = new AppointmentsAdapter(new ArrayList<>(), this::onAppointmentClick);
         appointmentsRecyclerView.setAdapter(adapter);
 
-        // Set current date
-        selectedDate = Calendar.getInstance().getTime();
+        // Selected day and its appointments survive rotation in the ViewModel
+        viewModel = new ViewModelProvider(this).get(AgendaViewModel.class);
+        calendarView.setDate(viewModel.getSelectedDate().getTime());
         updateSelectedDateText();
 
         // Calendar date change listener
         calendarView.setOnDateChangeListener((view1, year, month, dayOfMonth) -> {
             Calendar cal = Calendar.getInstance();
             cal.set(year, month, dayOfMonth);
-            selectedDate = cal.getTime();
+            if (!sessionManager.hasToken()) return;
+            viewModel.selectDate(cal.getTime());
             updateSelectedDateText();
-            filterAppointmentsByDate();
+        });
+
+        viewModel.getAppointments().observe(getViewLifecycleOwner(), this::displayAppointments);
+        viewModel.getErrors().observe(getViewLifecycleOwner(), event -> {
+            String message = event.consume();
+            if (message != null) Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
         });
 
         // Load appointments
-        loadAppointments();
+        if (!viewModel.hasLoaded()) {
+            loadAppointments();
+        }
 
         return view;
     }
 
     private void updateSelectedDateText() {
-        SimpleDateFormat sdf = new SimpleDateFormat("dd MMMM yyyy", Locale.FRENCH);
-        String dateStr = sdf.format(selectedDate);
-        selectedDateText.setText(dateStr);
+        selectedDateText.setText(DateUtils.formatLongDate(viewModel.getSelectedDate()));
     }
 
     private void loadAppointments() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        allAppointments = apiResponse.getData();
-                        filterAppointmentsByDate();
-                    }
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                Toast.makeText(requireContext(), "Erreur réseau", Toast.LENGTH_SHORT).show();
-            }
-        });
-    }
+        if (!sessionManager.hasToken()) return;
 
-    private void filterAppointmentsByDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        String selectedDateStr = sdf.format(selectedDate);
-
-        List<AppointmentDTO> filtered = new ArrayList<>();
-        for (AppointmentDTO appointment : allAppointments) {
-            String appointmentDate = appointment.getAppointmentDate().substring(0, 10); // Extract date part
-            if (appointmentDate.equals(selectedDateStr)) {
-                filtered.add(appointment);
-            }
-        }
+        viewModel.load();
+    }
 
-        if (filtered.isEmpty()) {
+    private void displayAppointments(List<AppointmentDTO> appointments) {
+        if (appointments.isEmpty()) {
             emptyStateLayout.setVisibility(View.VISIBLE);
             appointmentsRecyclerView.setVisibility(View.GONE);
         } else {
             emptyStateLayout.setVisibility(View.GONE);
             appointmentsRecyclerView.setVisibility(View.VISIBLE);
-            adapter.updateData(filtered);
+            adapter.updateData(appointments);
         }
     }
 
@@ -142,6 +115,11 @@ public class AgendaFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        loadAppointments();
+        // Coming back from another screen or tab: reloaded only if the day is stale or changed meanwhile
+        if (refreshOnResume && RefreshScheduler.getInstance()
+                .needsRefresh(RefreshScheduler.Resource.APPOINTMENTS, viewModel.getRefreshScope())) {
+            loadAppointments();
+        }
+        refreshOnResume = true;
     }
 }
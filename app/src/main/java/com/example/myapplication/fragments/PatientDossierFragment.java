@@ -11,6 +11,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.AppointmentsAdapter;
@@ -18,17 +19,18 @@ import com.example.myapplication.R;
 import com.example.myapplication.api.ApiService;
 import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
 import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.CursorPage;
 import com.example.myapplication.api.models.PatientDTO;
-import java.text.SimpleDateFormat;
+import com.example.myapplication.data.AppointmentPager;
+import com.example.myapplication.data.LocalStore;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.DateUtils;
+import com.example.myapplication.viewmodels.AppointmentListViewModel;
+import com.example.myapplication.viewmodels.PatientDossierViewModel;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class PatientDossierFragment extends Fragment {
 
@@ -42,9 +44,11 @@ public class PatientDossierFragment extends Fragment {
     private AppointmentsAdapter adapter;
     private SessionManager sessionManager;
     private ApiService apiService;
-
-    private String selectedPatientId;
-    private String selectedPatientName;
+    private LocalStore localStore;
+    private PatientDossierViewModel viewModel;
+    private AppointmentListViewModel appointments;
+    // False until the first resume, which follows a load or a rotation that kept the data
+    private boolean refreshOnResume = false;
 
     @Nullable
     @Override
@@ -68,91 +72,92 @@ public class PatientDossierFragment extends Fragment {
         adapter = new AppointmentsAdapter(new ArrayList<>());
         appointmentsHistoryRecyclerView.setAdapter(adapter);
 
+        localStore = LocalStore.getInstance(requireContext());
+
+        // The patient and their visits live in ViewModels shared with the other dossier tabs:
+        // one request fills all three, and a rotation shows them again without a request
+        ViewModelProvider provider = new ViewModelProvider(requireActivity());
+        viewModel = provider.get(PatientDossierViewModel.class);
+        appointments = provider.get(PatientDossierViewModel.HISTORY_KEY, AppointmentListViewModel.class);
+        if (viewModel.getPatientId() != null) {
+            appointments.init(appointmentPages(viewModel.getPatientId()),
+                AppointmentPager.patientAppointmentsCache(localStore, viewModel.getPatientId()));
+        }
+
+        viewModel.getPatient().observe(getViewLifecycleOwner(), patient -> {
+            if (patient != null) displayPatientInfo(patient);
+        });
+        viewModel.getErrors().observe(getViewLifecycleOwner(), event -> {
+            String message = event.consume();
+            if (message == null) return;
+            Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
+            // Keep the stored profile when there is one
+            if (viewModel.getPatient().getValue() == null) showEmptyState();
+        });
+        viewModel.getFirstPage().observe(getViewLifecycleOwner(), event -> {
+            CursorPage<AppointmentDTO> page = event.consume();
+            if (page != null) appointments.showFirstPage(page);
+        });
+        appointments.getState().observe(getViewLifecycleOwner(), state -> {
+            if (state != null) displayAppointmentsData(state.items, state.hasMore);
+        });
+        appointments.getErrors().observe(getViewLifecycleOwner(), event -> {
+            // Keep patient info even if appointments fail to load
+            if (event.consume() != null) adapter.onLoadMoreFailed();
+        });
+        adapter.setOnLoadMoreListener(() -> {
+            if (viewModel.getPatientId() != null) appointments.loadNextPage();
+        });
+
         // Show empty state initially
         showEmptyState();
 
         // Check if patient data passed from PatientsFragment
         Bundle args = getArguments();
         if (args != null) {
-            selectedPatientId = args.getString("patientId");
-            selectedPatientName = args.getString("patientName");
-            loadPatientDossier();
+            setPatient(args.getString("patientId"), args.getString("patientName"));
+        } else if (viewModel.getPatientId() != null) {
+            // Selection kept across a rotation or restored after the process was killed
+            setPatient(viewModel.getPatientId(), viewModel.getPatientName());
         }
 
         return view;
     }
 
     public void setPatient(String patientId, String patientName) {
-        this.selectedPatientId = patientId;
-        this.selectedPatientName = patientName;
-        loadPatientDossier();
-    }
-
-    private void loadPatientDossier() {
-        if (selectedPatientId == null) {
+        if (patientId == null) {
             showEmptyState();
             return;
         }
 
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
+        if (!sessionManager.hasToken()) return;
 
+        if (!patientId.equals(viewModel.getPatientId())) {
+            // Previous patient's visits are dropped; this one's come with the profile
+            appointments.reset(appointmentPages(patientId),
+                AppointmentPager.patientAppointmentsCache(localStore, patientId));
+            adapter.setFirstPage(new ArrayList<>(), false);
+        }
+        // Does nothing when another tab already loaded this patient
+        if (!appointments.hasLoaded()) appointments.showStored();
+        viewModel.select(patientId, patientName);
+        showSelectedPatient();
+    }
+
+    // Captures only the API and the id: the pager outlives this fragment
+    private AppointmentPager.PageRequest appointmentPages(String patientId) {
+        ApiService api = apiService;
+        return (cursor, limit) -> api.getPatientAppointments(patientId, cursor, limit);
+    }
+
+    private void showSelectedPatient() {
         // Show loading state
         emptyStateLayout.setVisibility(View.GONE);
-        patientNameText.setText(selectedPatientName);
+        patientNameText.setText(viewModel.getPatientName());
 
         // Get initials for avatar
-        String initials = getInitials(selectedPatientName);
+        String initials = getInitials(viewModel.getPatientName());
         patientAvatarLarge.setText(initials);
-
-        // Load patient details from API
-        apiService.getPatient(token, selectedPatientId).enqueue(new Callback<ApiResponse<PatientDTO>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<PatientDTO>> call, Response<ApiResponse<PatientDTO>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<PatientDTO> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        displayPatientInfo(apiResponse.getData());
-                        // Also load appointments
-                        loadPatientAppointments();
-                    } else {
-                        Toast.makeText(requireContext(), "Patient non trouvé", Toast.LENGTH_SHORT).show();
-                        showEmptyState();
-                    }
-                } else {
-                    Toast.makeText(requireContext(), "Erreur lors du chargement du patient", Toast.LENGTH_SHORT).show();
-                    showEmptyState();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<PatientDTO>> call, Throwable t) {
-                Toast.makeText(requireContext(), "Erreur réseau", Toast.LENGTH_SHORT).show();
-                showEmptyState();
-            }
-        });
-    }
-
-    private void loadPatientAppointments() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        displayAppointmentsData(apiResponse.getData());
-                    }
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                // Keep patient info even if appointments fail to load
-            }
-        });
     }
 
     private void displayPatientInfo(PatientDTO patient) {
@@ -162,31 +167,19 @@ public class PatientDossierFragment extends Fragment {
 
         // Format date of birth
         if (patient.getDateOfBirth() != null && !patient.getDateOfBirth().isEmpty()) {
-            try {
-                SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-                SimpleDateFormat outputFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-                Date dob = inputFormat.parse(patient.getDateOfBirth());
-                patientDobText.setText(outputFormat.format(dob));
-            } catch (Exception e) {
-                patientDobText.setText(patient.getDateOfBirth());
-            }
+            long dob = DateUtils.parseIsoMillis(patient.getDateOfBirth());
+            patientDobText.setText(dob != DateUtils.INVALID_TIME
+                    ? DateUtils.formatShortDate(dob)
+                    : patient.getDateOfBirth());
         } else {
             patientDobText.setText("Non renseignée");
         }
     }
 
-    private void displayAppointmentsData(List<AppointmentDTO> appointments) {
-        // Filter appointments for this patient
-        List<AppointmentDTO> patientAppointments = new ArrayList<>();
-        for (AppointmentDTO appointment : appointments) {
-            if (appointment.getPatientId().equals(selectedPatientId)) {
-                patientAppointments.add(appointment);
-            }
-        }
-
+    private void displayAppointmentsData(List<AppointmentDTO> appointments, boolean hasMore) {
         // Update appointments history
-        if (!patientAppointments.isEmpty()) {
-            adapter.updateData(patientAppointments);
+        if (!appointments.isEmpty()) {
+            adapter.setFirstPage(appointments, hasMore);
         }
     }
 
@@ -213,4 +206,16 @@ public class PatientDossierFragment extends Fragment {
 
         return initials.toString();
     }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Back from the notes tab or another screen: the profile is reloaded if it was changed meanwhile
+        String patientId = viewModel.getPatientId();
+        if (refreshOnResume && patientId != null && sessionManager.hasToken()
+                && RefreshScheduler.getInstance().needsRefresh(RefreshScheduler.Resource.PATIENT, patientId)) {
+            viewModel.load();
+        }
+        refreshOnResume = true;
+    }
 }
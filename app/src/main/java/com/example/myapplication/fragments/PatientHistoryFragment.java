@@ -9,6 +9,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.AppointmentsAdapter;
@@ -16,13 +17,15 @@ import com.example.myapplication.R;
 import com.example.myapplication.api.ApiService;
 import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
 import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.CursorPage;
+import com.example.myapplication.data.AppointmentPager;
+import com.example.myapplication.data.LocalStore;
+import com.example.myapplication.viewmodels.AppointmentListViewModel;
+import com.example.myapplication.viewmodels.PatientDossierViewModel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class PatientHistoryFragment extends Fragment {
 
@@ -31,6 +34,8 @@ public class PatientHistoryFragment extends Fragment {
     private AppointmentsAdapter adapter;
     private SessionManager sessionManager;
     private ApiService apiService;
+    private PatientDossierViewModel dossier;
+    private AppointmentListViewModel appointments;
     private String patientId;
     private String patientName;
 
@@ -58,7 +63,34 @@ public class PatientHistoryFragment extends Fragment {
         adapter = new AppointmentsAdapter(new ArrayList<>());
         appointmentsRecyclerView.setAdapter(adapter);
 
-        // Load appointments
+        // Only this patient's visits, newest first, paged as the list scrolls. The first page
+        // comes with the dossier; the pages are shared with the information tab and survive rotations
+        ApiService api = apiService;
+        String patientId = this.patientId;
+        ViewModelProvider provider = new ViewModelProvider(requireActivity());
+        dossier = provider.get(PatientDossierViewModel.class);
+        appointments = provider.get(PatientDossierViewModel.HISTORY_KEY, AppointmentListViewModel.class);
+        appointments.init(
+            (cursor, limit) -> api.getPatientAppointments(patientId, cursor, limit),
+            AppointmentPager.patientAppointmentsCache(LocalStore.getInstance(requireContext()), patientId));
+        dossier.getFirstPage().observe(getViewLifecycleOwner(), event -> {
+            CursorPage<AppointmentDTO> page = event.consume();
+            if (page != null) appointments.showFirstPage(page);
+        });
+        appointments.getState().observe(getViewLifecycleOwner(), state -> {
+            if (state != null) {
+                displayAppointments(state.items, state.hasMore);
+            } else {
+                // Reset for another patient: drop the previous one's visits while the new ones load
+                adapter.setFirstPage(Collections.<AppointmentDTO>emptyList(), false);
+            }
+        });
+        appointments.getErrors().observe(getViewLifecycleOwner(), event -> {
+            if (event.consume() != null) adapter.onLoadMoreFailed();
+        });
+        adapter.setOnLoadMoreListener(appointments::loadNextPage);
+
+        // Load the dossier, unless another tab already did
         if (patientId != null) {
             loadAppointments();
         }
@@ -67,43 +99,20 @@ public class PatientHistoryFragment extends Fragment {
     }
 
     private void loadAppointments() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        displayAppointments(apiResponse.getData());
-                    }
-                }
-            }
+        if (!sessionManager.hasToken()) return;
 
-            @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                // Handle error
-            }
-        });
+        if (!appointments.hasLoaded()) appointments.showStored();
+        dossier.select(patientId, patientName);
     }
 
-    private void displayAppointments(List<AppointmentDTO> appointments) {
-        // Filter appointments for this patient
-        List<AppointmentDTO> patientAppointments = new ArrayList<>();
-        for (AppointmentDTO appointment : appointments) {
-            if (appointment.getPatientId().equals(patientId)) {
-                patientAppointments.add(appointment);
-            }
-        }
-
-        if (patientAppointments.isEmpty()) {
+    private void displayAppointments(List<AppointmentDTO> appointments, boolean hasMore) {
+        if (appointments.isEmpty()) {
             emptyStateLayout.setVisibility(View.VISIBLE);
             appointmentsRecyclerView.setVisibility(View.GONE);
         } else {
             emptyStateLayout.setVisibility(View.GONE);
             appointmentsRecyclerView.setVisibility(View.VISIBLE);
-            adapter.updateData(patientAppointments);
+            adapter.setFirstPage(appointments, hasMore);
         }
     }
 }
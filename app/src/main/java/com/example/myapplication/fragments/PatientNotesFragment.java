@@ -1,6 +1,8 @@
 package com.example.myapplication.fragments;
 
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,25 +12,21 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import com.example.myapplication.R;
-import com.example.myapplication.api.ApiService;
-import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
-import com.example.myapplication.api.models.UpdatePatientNotesRequest;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import com.example.myapplication.viewmodels.PatientDossierViewModel;
+import com.example.myapplication.viewmodels.PatientNotesViewModel;
 
 public class PatientNotesFragment extends Fragment {
 
     private EditText notesEditText;
     private TextView saveButton;
     private SessionManager sessionManager;
-    private ApiService apiService;
+    private PatientNotesViewModel viewModel;
+    private PatientDossierViewModel dossier;
     private String patientId;
     private String patientName;
-    private boolean isLoading = false;
 
     @Nullable
     @Override
@@ -36,7 +34,6 @@ public class PatientNotesFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_patient_notes, container, false);
 
         sessionManager = new SessionManager(requireContext());
-        apiService = RetrofitClient.getApiService();
 
         // Get patient data from arguments
         Bundle args = getArguments();
@@ -49,10 +46,39 @@ public class PatientNotesFragment extends Fragment {
         notesEditText = view.findViewById(R.id.notesEditText);
         saveButton = view.findViewById(R.id.saveButton);
 
+        // Draft, load and save live in a ViewModel: a rotation keeps the text and any save under way
+        // The notes themselves come with the dossier, shared with the other tabs
+        viewModel = new ViewModelProvider(this).get(PatientNotesViewModel.class);
+        dossier = new ViewModelProvider(requireActivity()).get(PatientDossierViewModel.class);
+        dossier.getNotes().observe(getViewLifecycleOwner(), viewModel::onNotesLoaded);
+        viewModel.getDraft().observe(getViewLifecycleOwner(), draft -> {
+            // Skip the echo of what was just typed, it would move the cursor
+            if (draft != null && !draft.equals(notesEditText.getText().toString())) {
+                notesEditText.setText(draft);
+            }
+        });
+        viewModel.isSaving().observe(getViewLifecycleOwner(), saving -> saveButton.setEnabled(!saving));
+        viewModel.getMessages().observe(getViewLifecycleOwner(), event -> {
+            String message = event.consume();
+            if (message != null) Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
+        });
+        notesEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                viewModel.setDraft(s.toString());
+            }
+        });
+
         // Save button
         saveButton.setOnClickListener(v -> saveNotes());
 
-        // Load existing notes
+        // Load existing notes, unless another tab already did
         if (patientId != null) {
             loadNotes();
         }
@@ -61,65 +87,18 @@ public class PatientNotesFragment extends Fragment {
     }
 
     private void loadNotes() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null || patientId == null) return;
+        if (!sessionManager.hasToken() || patientId == null) return;
 
-        apiService.getPatientNotes(token, patientId).enqueue(new Callback<ApiResponse<String>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<String>> call, Response<ApiResponse<String>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<String> apiResponse = response.body();
-                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
-                        notesEditText.setText(apiResponse.getData());
-                    }
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<String>> call, Throwable t) {
-                // Keep empty on error, user can still add notes
-            }
-        });
+        dossier.select(patientId, patientName);
     }
 
     private void saveNotes() {
-        if (isLoading) return;
-
-        String token = sessionManager.getAuthHeader();
-        if (token == null || patientId == null) {
+        if (!sessionManager.hasToken() || patientId == null) {
             Toast.makeText(requireContext(), "Erreur d'authentification", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        String notes = notesEditText.getText().toString();
-        isLoading = true;
-        saveButton.setEnabled(false);
-
-        apiService.updatePatientNotes(token, patientId, new UpdatePatientNotesRequest(notes))
-            .enqueue(new Callback<ApiResponse<String>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<String>> call, Response<ApiResponse<String>> response) {
-                isLoading = false;
-                saveButton.setEnabled(true);
-
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<String> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        Toast.makeText(requireContext(), "Notes enregistrées", Toast.LENGTH_SHORT).show();
-                    } else {
-                        Toast.makeText(requireContext(), "Erreur: " + apiResponse.getMessage(), Toast.LENGTH_SHORT).show();
-                    }
-                } else {
-                    Toast.makeText(requireContext(), "Erreur lors de l'enregistrement", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<String>> call, Throwable t) {
-                isLoading = false;
-                saveButton.setEnabled(true);
-                Toast.makeText(requireContext(), "Erreur réseau", Toast.LENGTH_SHORT).show();
-            }
-        });
+        viewModel.setDraft(notesEditText.getText().toString());
+        viewModel.save(patientId);
     }
 }
@@ -13,26 +13,19 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.myapplication.PatientDossierActivity;
 import com.example.myapplication.PatientsAdapter;
 import com.example.myapplication.R;
-import com.example.myapplication.api.ApiService;
-import com.example.myapplication.api.RetrofitClient;
 import com.example.myapplication.api.SessionManager;
-import com.example.myapplication.api.models.ApiResponse;
-import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.DoctorPatientDTO;
+import com.example.myapplication.data.DossierPrefetcher;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.viewmodels.PatientsViewModel;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class PatientsFragment extends Fragment {
 
@@ -42,9 +35,10 @@ public class PatientsFragment extends Fragment {
     private View emptyStateLayout;
     private PatientsAdapter adapter;
     private SessionManager sessionManager;
-    private ApiService apiService;
-    private List<PatientInfo> patientsList = new ArrayList<>();
-    private List<PatientInfo> filteredList = new ArrayList<>();
+    private PatientsViewModel viewModel;
+    private List<DoctorPatientDTO> filteredList = new ArrayList<>();
+    // False until the first resume, which follows a load or a rotation that kept the data
+    private boolean refreshOnResume = false;
 
     @Nullable
     @Override
@@ -52,7 +46,6 @@ public class PatientsFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_patients, container, false);
 
         sessionManager = new SessionManager(requireContext());
-        apiService = RetrofitClient.getApiService();
 
         // Initialize views
         searchEditText = view.findViewById(R.id.searchEditText);
@@ -65,6 +58,37 @@ public class PatientsFragment extends Fragment {
         adapter = new PatientsAdapter(new ArrayList<>(), this::onPatientClick);
         patientsRecyclerView.setAdapter(adapter);
 
+        // Dossiers likely to be opened are fetched ahead, so they render at once
+        DossierPrefetcher prefetcher = DossierPrefetcher.getInstance();
+        adapter.setPrefetchListener(new PatientsAdapter.PrefetchListener() {
+            @Override
+            public void onPatientPressed(DoctorPatientDTO patient) {
+                if (sessionManager.hasToken()) prefetcher.prefetchPressed(patient.getId());
+            }
+
+            @Override
+            public void onPatientsSettled(List<DoctorPatientDTO> patients) {
+                if (!sessionManager.hasToken()) return;
+                List<String> ids = new ArrayList<>(patients.size());
+                for (DoctorPatientDTO patient : patients) ids.add(patient.getId());
+                prefetcher.prefetchVisible(ids);
+            }
+        });
+
+        // The list, its search index and the results live in a ViewModel, so a rotation
+        // shows them again without a request
+        viewModel = new ViewModelProvider(this).get(PatientsViewModel.class);
+        viewModel.getResults().observe(getViewLifecycleOwner(), patients -> {
+            filteredList = patients;
+            updateUI();
+        });
+        viewModel.getCanLoadMore().observe(getViewLifecycleOwner(), adapter::setHasMore);
+        adapter.setOnLoadMoreListener(viewModel::loadNextPage);
+        viewModel.getErrors().observe(getViewLifecycleOwner(), event -> {
+            String message = event.consume();
+            if (message != null) Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
+        });
+
         // Search functionality
         searchEditText.addTextChangedListener(new TextWatcher() {
             @Override
@@ -72,7 +96,7 @@ public class PatientsFragment extends Fragment {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterPatients(s.toString());
+                viewModel.setQuery(s.toString());
             }
 
             @Override
@@ -80,71 +104,16 @@ public class PatientsFragment extends Fragment {
         });
 
         // Load patients
-        loadPatients();
+        if (!viewModel.hasLoaded()) {
+            loadPatients();
+        }
 
         return view;
     }
 
     private void loadPatients() {
-        String token = sessionManager.getAuthHeader();
-        if (token == null) return;
-
-        apiService.getAppointments(token, "all").enqueue(new Callback<ApiResponse<List<AppointmentDTO>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<AppointmentDTO>>> call, Response<ApiResponse<List<AppointmentDTO>>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ApiResponse<List<AppointmentDTO>> apiResponse = response.body();
-                    if (apiResponse.isSuccess()) {
-                        processPatientsData(apiResponse.getData());
-                    }
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<List<AppointmentDTO>>> call, Throwable t) {
-                Toast.makeText(requireContext(), "Erreur réseau", Toast.LENGTH_SHORT).show();
-            }
-        });
-    }
-
-    private void processPatientsData(List<AppointmentDTO> appointments) {
-        // Group appointments by patient
-        Map<String, PatientInfo> patientsMap = new HashMap<>();
-
-        for (AppointmentDTO appointment : appointments) {
-            String patientId = appointment.getPatientId();
-            String patientName = appointment.getPatientName();
-
-            if (!patientsMap.containsKey(patientId)) {
-                patientsMap.put(patientId, new PatientInfo(patientId, patientName));
-            }
-
-            patientsMap.get(patientId).incrementAppointmentCount();
-        }
-
-        // Convert to list and sort by name
-        patientsList = new ArrayList<>(patientsMap.values());
-        Collections.sort(patientsList, Comparator.comparing(PatientInfo::getName));
-
-        filteredList = new ArrayList<>(patientsList);
-        updateUI();
-    }
-
-    private void filterPatients(String query) {
-        filteredList.clear();
-
-        if (query.isEmpty()) {
-            filteredList.addAll(patientsList);
-        } else {
-            String lowerQuery = query.toLowerCase(Locale.ROOT);
-            for (PatientInfo patient : patientsList) {
-                if (patient.getName().toLowerCase(Locale.ROOT).contains(lowerQuery)) {
-                    filteredList.add(patient);
-                }
-            }
-        }
-
-        updateUI();
+        if (!sessionManager.hasToken()) return;
+        viewModel.load();
     }
 
     private void updateUI() {
@@ -161,7 +130,7 @@ public class PatientsFragment extends Fragment {
         patientsCountText.setText(count + " Patient" + (count > 1 ? "s" : ""));
     }
 
-    private void onPatientClick(PatientInfo patient) {
+    private void onPatientClick(DoctorPatientDTO patient) {
         Intent intent = new Intent(requireContext(), PatientDossierActivity.class);
         intent.putExtra("patientId", patient.getId());
         intent.putExtra("patientName", patient.getName());
@@ -171,24 +140,10 @@ public class PatientsFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        loadPatients();
-    }
-
-    // Patient info holder
-    public static class PatientInfo {
-        private final String id;
-        private final String name;
-        private int appointmentCount;
-
-        public PatientInfo(String id, String name) {
-            this.id = id;
-            this.name = name;
-            this.appointmentCount = 0;
+        // Coming back from a dossier: reloaded only if the list is stale or changed meanwhile
+        if (refreshOnResume && RefreshScheduler.getInstance().needsRefresh(RefreshScheduler.Resource.PATIENTS)) {
+            loadPatients();
         }
-
-        public String getId() { return id; }
-        public String getName() { return name; }
-        public int getAppointmentCount() { return appointmentCount; }
-        public void incrementAppointmentCount() { appointmentCount++; }
+        refreshOnResume = true;
     }
 }
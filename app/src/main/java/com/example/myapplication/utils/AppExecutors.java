@@ -0,0 +1,55 @@
+package com.example.myapplication.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AppExecutors {
+
+    // One thread keeps SQLite access serialized
+    private static final ExecutorService DISK_IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "clinic-disk-io");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    // List grouping/sorting/filtering, list diffs and index builds; a fixed number of threads so a
+    // burst of refreshes cannot pile up threads. The queue is unbounded and no job is ever dropped:
+    // AsyncListDiffer and the repository's index builds wait for their callback. A burst costs
+    // little anyway, since ComputePipeline jobs superseded while queued return without working
+    private static final int COMPUTE_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+    private static final AtomicInteger COMPUTE_THREAD_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor COMPUTE = new ThreadPoolExecutor(
+            COMPUTE_THREADS, COMPUTE_THREADS, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "clinic-compute-" + COMPUTE_THREAD_COUNT.incrementAndGet());
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+
+    static {
+        COMPUTE.allowCoreThreadTimeOut(true);
+    }
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN_THREAD = MAIN_HANDLER::post;
+
+    public static Executor diskIO() {
+        return DISK_IO;
+    }
+
+    public static Executor compute() {
+        return COMPUTE;
+    }
+
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+}
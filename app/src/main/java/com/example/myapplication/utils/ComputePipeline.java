@@ -0,0 +1,32 @@
+package com.example.myapplication.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs list transformations on {@link AppExecutors#compute()} and hands the finished result to
+ * the main thread. Latest wins: submitting again, or calling {@link #cancel()}, drops the result
+ * of any earlier job, so a slow job never overwrites newer data or touches a destroyed view.
+ * One instance per screen; submit and cancel from the main thread.
+ */
+public class ComputePipeline<T> {
+
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // work must not touch views or state owned by the main thread
+    public void submit(Supplier<T> work, Consumer<T> onResult) {
+        int job = generation.incrementAndGet();
+        AppExecutors.compute().execute(() -> {
+            if (job != generation.get()) return;
+            T result = work.get();
+            AppExecutors.mainThread().execute(() -> {
+                if (job == generation.get()) onResult.accept(result);
+            });
+        });
+    }
+
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+}
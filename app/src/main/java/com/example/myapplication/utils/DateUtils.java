@@ -0,0 +1,188 @@
+package com.example.myapplication.utils;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Allocation-free date arithmetic for API timestamps (yyyy-MM-ddTHH:mm:ss, clinic local time),
+ * plus per-thread formatters for the few places that still need text.
+ */
+public final class DateUtils {
+
+    // Returned by the parsers for missing or malformed timestamps
+    public static final long INVALID_TIME = Long.MIN_VALUE;
+    public static final int INVALID_DAY = Integer.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // SimpleDateFormat is not thread-safe: one instance per thread, re-zoned on each use
+    private static final ThreadLocal<SimpleDateFormat> ISO_FORMAT =
+            formatter("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+    private static final ThreadLocal<SimpleDateFormat> DATE_TIME_FORMAT =
+            formatter("yyyy-MM-dd HH:mm", Locale.US);
+    private static final ThreadLocal<SimpleDateFormat> SHORT_DATE_FORMAT =
+            formatter("dd/MM/yyyy", Locale.getDefault());
+    private static final ThreadLocal<SimpleDateFormat> LONG_DATE_FORMAT =
+            formatter("dd MMMM yyyy", Locale.FRENCH);
+
+    private DateUtils() {}
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar; month is 1-12
+    public static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Epoch day of the date part, or INVALID_DAY if it does not start with an existing yyyy-MM-dd
+    public static int epochDayOf(String isoDate) {
+        if (isoDate == null || isoDate.length() < 10
+                || isoDate.charAt(4) != '-' || isoDate.charAt(7) != '-') {
+            return INVALID_DAY;
+        }
+        int year = digits(isoDate, 0, 4);
+        int month = digits(isoDate, 5, 7);
+        int day = digits(isoDate, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID_DAY;
+        }
+        return epochDay(year, month, day);
+    }
+
+    // Length of the month in the proleptic Gregorian calendar; month is 1-12
+    public static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Epoch millis of yyyy-MM-dd[THH:mm[:ss[.fff]]][Z|+hh:mm], or INVALID_TIME.
+     * Without an offset the timestamp is clinic local time, i.e. the device's zone.
+     */
+    public static long parseIsoMillis(String iso) {
+        int day = epochDayOf(iso);
+        if (day == INVALID_DAY) return INVALID_TIME;
+
+        int length = iso.length();
+        int pos = 10;
+        long timeOfDay = 0;
+        if (length > pos) {
+            char separator = iso.charAt(pos);
+            if ((separator != 'T' && separator != ' ') || length < 16 || iso.charAt(13) != ':') {
+                return INVALID_TIME;
+            }
+            int hour = digits(iso, 11, 13);
+            int minute = digits(iso, 14, 16);
+            int second = 0;
+            pos = 16;
+            if (length >= 19 && iso.charAt(16) == ':') {
+                second = digits(iso, 17, 19);
+                pos = 19;
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return INVALID_TIME;
+            }
+            int millis = 0;
+            if (pos < length && iso.charAt(pos) == '.') {
+                // .NET sends up to 7 fraction digits; keep the first three
+                int scale = 100;
+                for (pos++; pos < length && iso.charAt(pos) >= '0' && iso.charAt(pos) <= '9'; pos++) {
+                    millis += (iso.charAt(pos) - '0') * scale;
+                    scale /= 10;
+                }
+            }
+            timeOfDay = ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+        }
+
+        long wallTime = day * MILLIS_PER_DAY + timeOfDay;
+        if (pos == length) {
+            TimeZone zone = TimeZone.getDefault();
+            return wallTime - zone.getOffset(wallTime - zone.getRawOffset());
+        }
+        char sign = iso.charAt(pos);
+        if (sign == 'Z' && pos + 1 == length) return wallTime;
+        if ((sign == '+' || sign == '-') && length == pos + 6 && iso.charAt(pos + 3) == ':') {
+            int offsetHours = digits(iso, pos + 1, pos + 3);
+            int offsetMinutes = digits(iso, pos + 4, pos + 6);
+            if (offsetHours < 0 || offsetMinutes < 0) return INVALID_TIME;
+            long offset = (offsetHours * 60L + offsetMinutes) * 60_000;
+            return sign == '+' ? wallTime - offset : wallTime + offset;
+        }
+        return INVALID_TIME;
+    }
+
+    // Epoch day of the instant in the device's zone
+    public static int localEpochDay(long millis) {
+        if (millis == INVALID_TIME) return INVALID_DAY;
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        return (int) Math.floorDiv(local, MILLIS_PER_DAY);
+    }
+
+    public static int epochDayOf(Calendar calendar) {
+        return epochDay(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    public static int today() {
+        return epochDayOf(Calendar.getInstance());
+    }
+
+    // Today's epoch day in UTC, the server's "today" (DateTime.UtcNow.Date)
+    public static int utcToday() {
+        return (int) Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY);
+    }
+
+    // yyyy-MM-ddTHH:mm:ss in local time, the format the API expects for query parameters
+    public static String formatIso(Date date) {
+        return format(ISO_FORMAT, date);
+    }
+
+    // yyyy-MM-dd HH:mm, or "" for INVALID_TIME
+    public static String formatDateTime(long millis) {
+        return millis == INVALID_TIME ? "" : format(DATE_TIME_FORMAT, new Date(millis));
+    }
+
+    // dd/MM/yyyy, or "" for INVALID_TIME
+    public static String formatShortDate(long millis) {
+        return millis == INVALID_TIME ? "" : format(SHORT_DATE_FORMAT, new Date(millis));
+    }
+
+    // e.g. 05 mars 2025
+    public static String formatLongDate(Date date) {
+        return format(LONG_DATE_FORMAT, date);
+    }
+
+    private static ThreadLocal<SimpleDateFormat> formatter(String pattern, Locale locale) {
+        return ThreadLocal.withInitial(() -> new SimpleDateFormat(pattern, locale));
+    }
+
+    private static String format(ThreadLocal<SimpleDateFormat> formatter, Date date) {
+        SimpleDateFormat format = formatter.get();
+        // Follow the device if its zone changed since the formatter was created
+        format.setTimeZone(TimeZone.getDefault());
+        return format.format(date);
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
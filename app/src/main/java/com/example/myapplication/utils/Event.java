@@ -0,0 +1,22 @@
+package com.example.myapplication.utils;
+
+/**
+ * One-shot value for LiveData, e.g. an error toast: a screen recreated after a rotation
+ * re-reads the LiveData but must not show the toast again.
+ */
+public final class Event<T> {
+
+    private final T content;
+    private boolean handled = false;
+
+    public Event(T content) {
+        this.content = content;
+    }
+
+    // Null once a previous call returned the content
+    public T consume() {
+        if (handled) return null;
+        handled = true;
+        return content;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.myapplication.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Accent- and case-insensitive word-prefix search over a fixed list, e.g. "hel" or "helene"
+ * finds "Hélène Dupont", and "dup hel" finds it too. Every query word must start a word of
+ * the item's text. Matches come back in list order.
+ * Immutable once built; build and search off the main thread.
+ */
+public final class PrefixIndex<T> {
+
+    private final List<T> items;
+    // Every word of every item, sorted, with the position of its item alongside
+    private final String[] words;
+    private final int[] owners;
+    // Words of each item, to re-check the previous matches when a query only grows
+    private final String[][] itemWords;
+
+    private PrefixIndex(List<T> items, String[] words, int[] owners, String[][] itemWords) {
+        this.items = items;
+        this.words = words;
+        this.owners = owners;
+        this.itemWords = itemWords;
+    }
+
+    public static <T> PrefixIndex<T> build(List<T> items, Function<T, String> text) {
+        List<T> copy = Collections.unmodifiableList(new ArrayList<>(items));
+        String[][] itemWords = new String[copy.size()][];
+        List<Entry> entries = new ArrayList<>(copy.size() * 2);
+        for (int i = 0; i < copy.size(); i++) {
+            itemWords[i] = words(normalize(text.apply(copy.get(i))));
+            for (String word : itemWords[i]) {
+                entries.add(new Entry(word, i));
+            }
+        }
+        Collections.sort(entries, (a, b) -> a.word.compareTo(b.word));
+
+        String[] words = new String[entries.size()];
+        int[] owners = new int[entries.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = entries.get(i).word;
+            owners[i] = entries.get(i).owner;
+        }
+        return new PrefixIndex<>(copy, words, owners, itemWords);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Items matching query. previous, when it came from this index and its query is a prefix
+     * of this one, bounds the search: a longer query can only narrow its matches.
+     */
+    public Match<T> search(String query, Match<T> previous) {
+        String normalized = normalize(query);
+        String[] queryWords = words(normalized);
+        if (queryWords.length == 0) {
+            return new Match<>(this, normalized, items);
+        }
+
+        int[] positions;
+        if (previous != null && previous.index == this && normalized.startsWith(previous.query)) {
+            positions = narrow(previous.positions(), queryWords);
+        } else {
+            BitSet found = lookup(queryWords[0]);
+            for (int i = 1; i < queryWords.length && !found.isEmpty(); i++) {
+                found.and(lookup(queryWords[i]));
+            }
+            positions = new int[found.cardinality()];
+            for (int i = found.nextSetBit(0), n = 0; i >= 0; i = found.nextSetBit(i + 1)) {
+                positions[n++] = i;
+            }
+        }
+
+        List<T> matches = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            matches.add(items.get(position));
+        }
+        return new Match<>(this, normalized, matches, positions);
+    }
+
+    // Lowercase, diacritics stripped: "Hélène Œuvray" -> "helene oeuvray"
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            switch (c) {
+                case 'œ': case 'Œ': builder.append("oe"); break;
+                case 'æ': case 'Æ': builder.append("ae"); break;
+                case 'ß': builder.append("ss"); break;
+                default: builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString();
+    }
+
+    // Items owning a word that starts with prefix; the words sharing a prefix are contiguous
+    private BitSet lookup(String prefix) {
+        BitSet found = new BitSet(items.size());
+        for (int i = firstAtOrAfter(prefix); i < words.length && words[i].startsWith(prefix); i++) {
+            found.set(owners[i]);
+        }
+        return found;
+    }
+
+    // Lower bound: Arrays.binarySearch may land on any of several equal words, e.g. two "marc"
+    private int firstAtOrAfter(String prefix) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int[] narrow(int[] positions, String[] queryWords) {
+        int[] kept = new int[positions.length];
+        int count = 0;
+        for (int position : positions) {
+            if (matchesAll(itemWords[position], queryWords)) kept[count++] = position;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    private static boolean matchesAll(String[] itemWords, String[] queryWords) {
+        for (String queryWord : queryWords) {
+            boolean found = false;
+            for (String word : itemWords) {
+                if (word.startsWith(queryWord)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    // Splits normalized text on anything that is not a letter or digit ("Jean-Marc" -> jean, marc)
+    private static String[] words(String normalized) {
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static final class Entry {
+        final String word;
+        final int owner;
+
+        Entry(String word, int owner) {
+            this.word = word;
+            this.owner = owner;
+        }
+    }
+
+    /** Result of a search; pass it back to the next search so a growing query reuses it. */
+    public static final class Match<T> {
+        private final PrefixIndex<T> index;
+        private final String query;
+        private final List<T> items;
+        // Null when every item matched
+        private final int[] positions;
+
+        Match(PrefixIndex<T> index, String query, List<T> items) {
+            this(index, query, items, null);
+        }
+
+        Match(PrefixIndex<T> index, String query, List<T> items, int[] positions) {
+            this.index = index;
+            this.query = query;
+            this.items = items;
+            this.positions = positions;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        private int[] positions() {
+            if (positions != null) return positions;
+            int[] all = new int[index.items.size()];
+            for (int i = 0; i < all.length; i++) all[i] = i;
+            return all;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.myapplication.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.Event;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The agenda's selected day and its appointments. The day is saved state, so it also
+ * survives the process being killed in the background.
+ */
+public class AgendaViewModel extends AndroidViewModel {
+
+    private static final String KEY_SELECTED_DATE = "selectedDate";
+
+    private final SavedStateHandle savedState;
+    private final MutableLiveData<List<AppointmentDTO>> appointments = new MutableLiveData<>();
+    private final MutableLiveData<Event<String>> errors = new MutableLiveData<>();
+    // Day of the last request, to drop answers for a day no longer selected
+    private long requestedDate = -1;
+
+    public AgendaViewModel(@NonNull Application application, @NonNull SavedStateHandle savedState) {
+        super(application);
+        this.savedState = savedState;
+    }
+
+    public Date getSelectedDate() {
+        Long selected = savedState.get(KEY_SELECTED_DATE);
+        return selected != null ? new Date(selected) : Calendar.getInstance().getTime();
+    }
+
+    public void selectDate(Date date) {
+        savedState.set(KEY_SELECTED_DATE, date.getTime());
+        load();
+    }
+
+    public LiveData<List<AppointmentDTO>> getAppointments() {
+        return appointments;
+    }
+
+    public LiveData<Event<String>> getErrors() {
+        return errors;
+    }
+
+    public boolean hasLoaded() {
+        return requestedDate >= 0;
+    }
+
+    // Each day's freshness is tracked on its own
+    public String getRefreshScope() {
+        return "day:" + startOfSelectedDay().getTimeInMillis();
+    }
+
+    public void load() {
+        // Only ask the server for the selected day: [00:00, next day 00:00)
+        Calendar start = startOfSelectedDay();
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DAY_OF_MONTH, 1);
+
+        long day = start.getTimeInMillis();
+        requestedDate = day;
+        String scope = getRefreshScope();
+        RefreshScheduler scheduler = RefreshScheduler.getInstance();
+        scheduler.refreshStarted(RefreshScheduler.Resource.APPOINTMENTS, scope);
+        AppointmentRepository.getInstance(getApplication()).getAppointmentsInRange(start.getTime(), end.getTime(), false, new AppointmentRepository.Listener() {
+            @Override
+            public void onStoredAppointmentsLoaded(List<AppointmentDTO> result) {
+                // Shown while the server answers, but not fresh until it has
+                if (day != requestedDate) return;
+                appointments.setValue(result);
+            }
+
+            @Override
+            public void onAppointmentsLoaded(List<AppointmentDTO> result) {
+                scheduler.refreshSucceeded(RefreshScheduler.Resource.APPOINTMENTS, scope);
+                // The user may have picked another day while this one was loading
+                if (day != requestedDate) return;
+                appointments.setValue(result);
+            }
+
+            @Override
+            public void onAppointmentsError(String message) {
+                scheduler.refreshFailed(RefreshScheduler.Resource.APPOINTMENTS, scope);
+                if (day != requestedDate) return;
+                errors.setValue(new Event<>("Erreur réseau"));
+            }
+        });
+    }
+
+    private Calendar startOfSelectedDay() {
+        Calendar start = Calendar.getInstance();
+        start.setTime(getSelectedDate());
+        start.set(Calendar.HOUR_OF_DAY, 0);
+        start.set(Calendar.MINUTE, 0);
+        start.set(Calendar.SECOND, 0);
+        start.set(Calendar.MILLISECOND, 0);
+        return start;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.myapplication.viewmodels;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.AppointmentEvent;
+import com.example.myapplication.api.models.CursorPage;
+import com.example.myapplication.data.AppointmentPager;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.AppExecutors;
+import com.example.myapplication.utils.Event;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One paged appointment list kept across configuration changes. The pager lives here, so a
+ * page still loading during a rotation lands in the recreated screen, and the pages already
+ * loaded are shown again without a request.
+ */
+public class AppointmentListViewModel extends ViewModel {
+
+    // Everything loaded so far, in display order; do not modify items
+    public static final class State {
+        public final List<AppointmentDTO> items;
+        public final boolean hasMore;
+
+        State(List<AppointmentDTO> items, boolean hasMore) {
+            this.items = items;
+            this.hasMore = hasMore;
+        }
+    }
+
+    private final MutableLiveData<State> state = new MutableLiveData<>();
+    private final MutableLiveData<Event<String>> errors = new MutableLiveData<>();
+    private AppointmentPager pager;
+    private AppointmentPager.LocalCache localCache;
+    // Where refreshes of the first page are reported, if anywhere
+    private RefreshScheduler.Resource resource;
+    private String scope;
+    private boolean refreshing;
+
+    // Only the first call counts; later calls from recreated screens keep the existing pager
+    public void init(AppointmentPager.PageRequest request, AppointmentPager.LocalCache localCache) {
+        if (pager != null) return;
+        pager = newPager(request, localCache);
+    }
+
+    // Switches to another list, e.g. another patient's visits; the pages shown so far are dropped
+    // and the state goes back to null, so hasLoaded() is false until the new list shows something
+    public void reset(AppointmentPager.PageRequest request, AppointmentPager.LocalCache localCache) {
+        if (pager != null) pager.cancel();
+        state.setValue(null);
+        pager = newPager(request, localCache);
+    }
+
+    // Reports refreshes to the RefreshScheduler, so the screen can ask it whether the list is stale
+    public void trackFreshness(RefreshScheduler.Resource resource, String scope) {
+        this.resource = resource;
+        this.scope = scope;
+    }
+
+    private AppointmentPager newPager(AppointmentPager.PageRequest request, AppointmentPager.LocalCache localCache) {
+        this.localCache = localCache;
+        return new AppointmentPager(request, localCache, new AppointmentPager.Listener() {
+            @Override
+            public void onPageLoaded(List<AppointmentDTO> items, boolean firstPage, boolean hasMore) {
+                // The stored first page arrives while the network one is still loading
+                if (firstPage && refreshing && !pager.isLoading()) {
+                    refreshing = false;
+                    RefreshScheduler.getInstance().refreshSucceeded(resource, scope);
+                }
+                State current = state.getValue();
+                List<AppointmentDTO> all = new ArrayList<>(firstPage || current == null
+                        ? Collections.<AppointmentDTO>emptyList()
+                        : current.items);
+                all.addAll(items);
+                state.setValue(new State(Collections.unmodifiableList(all), hasMore));
+            }
+
+            @Override
+            public void onPageError(String message) {
+                if (refreshing) {
+                    refreshing = false;
+                    RefreshScheduler.getInstance().refreshFailed(resource, scope);
+                }
+                errors.setValue(new Event<>(message));
+            }
+        });
+    }
+
+    /**
+     * Applies a pushed change to the pages loaded so far, newest first: a known appointment
+     * is replaced, a new one inserted by date unless it falls past the pages loaded yet.
+     * Returns false if the list was left as is.
+     */
+    public boolean apply(AppointmentEvent event) {
+        State current = state.getValue();
+        AppointmentDTO changed = event.getAppointment();
+        if (current == null || changed.getId() == null) return false;
+
+        List<AppointmentDTO> items = new ArrayList<>(current.items);
+        int existing = -1;
+        for (int i = 0; i < items.size(); i++) {
+            if (changed.getId().equals(items.get(i).getId())) {
+                existing = i;
+                break;
+            }
+        }
+
+        if (existing >= 0) {
+            items.set(existing, changed);
+        } else if (AppointmentEvent.CREATED.equals(event.getType())) {
+            long time = changed.getAppointmentTime();
+            int at = 0;
+            while (at < items.size() && items.get(at).getAppointmentTime() >= time) at++;
+            // Belongs to a page not loaded yet; it shows up when the list gets there
+            if (at == items.size() && current.hasMore) return false;
+            items.add(at, changed);
+        } else {
+            return false;
+        }
+
+        if (localCache != null) {
+            AppointmentPager.LocalCache cache = localCache;
+            AppExecutors.diskIO().execute(() -> cache.write(Collections.singletonList(changed)));
+        }
+        state.setValue(new State(Collections.unmodifiableList(items), current.hasMore));
+        return true;
+    }
+
+    // Null until a first page is shown, and again after reset(); observers must allow for it
+    public LiveData<State> getState() {
+        return state;
+    }
+
+    public LiveData<Event<String>> getErrors() {
+        return errors;
+    }
+
+    public boolean hasLoaded() {
+        return state.getValue() != null || pager.isLoading();
+    }
+
+    public void refresh() {
+        if (resource != null) {
+            refreshing = true;
+            RefreshScheduler.getInstance().refreshStarted(resource, scope);
+        }
+        pager.refresh();
+    }
+
+    // The stored first page until showFirstPage is called
+    public void showStored() {
+        pager.showStored();
+    }
+
+    // First page fetched along with something else; scrolling then loads the next pages as usual
+    public void showFirstPage(CursorPage<AppointmentDTO> page) {
+        pager.showFirstPage(page);
+    }
+
+    public void loadNextPage() {
+        pager.loadNextPage();
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pager != null) pager.cancel();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.myapplication.viewmodels;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+import com.example.myapplication.api.RetrofitClient;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentEvent;
+import com.example.myapplication.api.models.DashboardDTO;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.DateUtils;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// The clerk's dashboard counters; the appointment list has its own AppointmentListViewModel
+public class ClerkHomeViewModel extends ViewModel {
+
+    private final MutableLiveData<DashboardDTO> dashboard = new MutableLiveData<>();
+    private Call<ApiResponse<DashboardDTO>> inFlight;
+
+    public LiveData<DashboardDTO> getDashboard() {
+        return dashboard;
+    }
+
+    public boolean hasLoaded() {
+        return dashboard.getValue() != null || inFlight != null;
+    }
+
+    // Moves the counters as the server would count the pushed change; false if they were left as is
+    public boolean apply(AppointmentEvent event) {
+        DashboardDTO current = dashboard.getValue();
+        if (current == null) return false;
+
+        int today = current.getTodayAppointments();
+        int pending = current.getPendingAppointments();
+        if (AppointmentEvent.CREATED.equals(event.getType())) {
+            pending++;
+            // The server counts stored dates falling on its UTC date, not the device's local day
+            if (DateUtils.epochDayOf(event.getAppointment().getAppointmentDate()) == DateUtils.utcToday()) today++;
+        } else if (AppointmentEvent.COMPLETED.equals(event.getType())
+                || AppointmentEvent.CANCELLED.equals(event.getType())) {
+            // Only scheduled appointments can be completed or cancelled; today's count includes every status
+            pending = Math.max(0, pending - 1);
+        } else {
+            return false;
+        }
+        dashboard.setValue(new DashboardDTO(today, pending, current.getTotalPatients(), current.getTotalDoctors()));
+        return true;
+    }
+
+    public void load() {
+        if (inFlight != null) return;
+        RefreshScheduler scheduler = RefreshScheduler.getInstance();
+        scheduler.refreshStarted(RefreshScheduler.Resource.DASHBOARD, null);
+        Call<ApiResponse<DashboardDTO>> call = RetrofitClient.getApiService().getDashboard();
+        inFlight = call;
+        call.enqueue(new Callback<ApiResponse<DashboardDTO>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<DashboardDTO>> call, Response<ApiResponse<DashboardDTO>> response) {
+                if (call != inFlight) return;
+                inFlight = null;
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null) {
+                    scheduler.refreshSucceeded(RefreshScheduler.Resource.DASHBOARD, null);
+                    dashboard.setValue(response.body().getData());
+                } else {
+                    scheduler.refreshFailed(RefreshScheduler.Resource.DASHBOARD, null);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<DashboardDTO>> call, Throwable t) {
+                // Silently fail for dashboard stats
+                if (call != inFlight) return;
+                inFlight = null;
+                scheduler.refreshFailed(RefreshScheduler.Resource.DASHBOARD, null);
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+}
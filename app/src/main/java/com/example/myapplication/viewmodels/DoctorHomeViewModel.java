@@ -0,0 +1,52 @@
+package com.example.myapplication.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.myapplication.data.AppointmentIndex;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.RefreshScheduler;
+
+// The doctor's dashboard: the appointment index the summary and today's list are read from
+public class DoctorHomeViewModel extends AndroidViewModel {
+
+    public static final String REFRESH_SCOPE = "index";
+
+    private final MutableLiveData<AppointmentIndex> index = new MutableLiveData<>();
+    private boolean loading = false;
+
+    public DoctorHomeViewModel(@NonNull Application application) {
+        super(application);
+    }
+
+    public LiveData<AppointmentIndex> getIndex() {
+        return index;
+    }
+
+    public boolean hasLoaded() {
+        return index.getValue() != null || loading;
+    }
+
+    public void load() {
+        loading = true;
+        RefreshScheduler scheduler = RefreshScheduler.getInstance();
+        scheduler.refreshStarted(RefreshScheduler.Resource.APPOINTMENTS, REFRESH_SCOPE);
+        AppointmentRepository.getInstance(getApplication()).getAppointmentIndex(new AppointmentRepository.IndexListener() {
+            @Override
+            public void onIndexReady(AppointmentIndex result) {
+                loading = false;
+                scheduler.refreshSucceeded(RefreshScheduler.Resource.APPOINTMENTS, REFRESH_SCOPE);
+                index.setValue(result);
+            }
+
+            @Override
+            public void onIndexError(String message) {
+                // Silently fail
+                loading = false;
+                scheduler.refreshFailed(RefreshScheduler.Resource.APPOINTMENTS, REFRESH_SCOPE);
+            }
+        });
+    }
+}
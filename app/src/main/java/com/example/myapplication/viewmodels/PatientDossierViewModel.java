@@ -0,0 +1,205 @@
+package com.example.myapplication.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.RetrofitClient;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.CursorPage;
+import com.example.myapplication.api.models.PatientDTO;
+import com.example.myapplication.api.models.PatientDossierDTO;
+import com.example.myapplication.data.AppointmentPager;
+import com.example.myapplication.data.DossierPrefetcher;
+import com.example.myapplication.data.LocalStore;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.AppExecutors;
+import com.example.myapplication.utils.Event;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * The patient shown in a dossier: the stored profile first, then the server's. Which patient
+ * is selected is saved state, so it also survives the process being killed in the background.
+ * Profile, first history page and notes come from one request; the dossier tabs share this
+ * ViewModel through their activity, and the history through the {@link #HISTORY_KEY} list.
+ * A dossier prefetched from the patient list is used as is, or awaited if still loading.
+ */
+public class PatientDossierViewModel extends AndroidViewModel {
+
+    // Key of the activity's AppointmentListViewModel holding the patient's visits
+    public static final String HISTORY_KEY = "dossierHistory";
+
+    private static final String KEY_PATIENT_ID = "patientId";
+    private static final String KEY_PATIENT_NAME = "patientName";
+
+    private final SavedStateHandle savedState;
+    private final ApiService apiService = RetrofitClient.getApiService();
+    private final MutableLiveData<PatientDTO> patient = new MutableLiveData<>();
+    private final MutableLiveData<String> notes = new MutableLiveData<>();
+    // Consumed by whichever tab shows the history first; the list is shared
+    private final MutableLiveData<Event<CursorPage<AppointmentDTO>>> firstPage = new MutableLiveData<>();
+    private final MutableLiveData<Event<String>> errors = new MutableLiveData<>();
+    private Call<ApiResponse<PatientDossierDTO>> inFlight;
+    // Set while a prefetch for the patient is awaited instead of a request of our own
+    private DossierPrefetcher.Listener awaiting;
+
+    public PatientDossierViewModel(@NonNull Application application, @NonNull SavedStateHandle savedState) {
+        super(application);
+        this.savedState = savedState;
+    }
+
+    public String getPatientId() {
+        return savedState.get(KEY_PATIENT_ID);
+    }
+
+    public String getPatientName() {
+        return savedState.get(KEY_PATIENT_NAME);
+    }
+
+    public LiveData<PatientDTO> getPatient() {
+        return patient;
+    }
+
+    // Null until loaded, and for callers who may not read notes
+    public LiveData<String> getNotes() {
+        return notes;
+    }
+
+    public LiveData<Event<CursorPage<AppointmentDTO>>> getFirstPage() {
+        return firstPage;
+    }
+
+    public LiveData<Event<String>> getErrors() {
+        return errors;
+    }
+
+    public boolean hasLoaded() {
+        return patient.getValue() != null || inFlight != null || awaiting != null;
+    }
+
+    // Another patient: what was shown for the previous one is dropped
+    public void select(String patientId, String patientName) {
+        if (patientId != null && patientId.equals(getPatientId()) && hasLoaded()) return;
+        savedState.set(KEY_PATIENT_ID, patientId);
+        savedState.set(KEY_PATIENT_NAME, patientName);
+        patient.setValue(null);
+        notes.setValue(null);
+        load();
+    }
+
+    public void load() {
+        String patientId = getPatientId();
+        if (patientId == null) return;
+        cancel();
+        RefreshScheduler.getInstance().refreshStarted(RefreshScheduler.Resource.PATIENT, patientId);
+
+        DossierPrefetcher prefetcher = DossierPrefetcher.getInstance();
+        PatientDossierDTO prefetched = prefetcher.get(patientId);
+        if (prefetched != null) {
+            showDossier(patientId, prefetched);
+            return;
+        }
+
+        // Show the stored profile first, the API answer replaces it
+        LocalStore localStore = LocalStore.getInstance(getApplication());
+        AppExecutors.diskIO().execute(() -> {
+            PatientDTO local = localStore.getPatient(patientId);
+            AppExecutors.mainThread().execute(() -> {
+                if (local != null && patientId.equals(getPatientId()) && patient.getValue() == null) {
+                    patient.setValue(local);
+                }
+            });
+        });
+
+        // Pressed in the patient list a moment ago: its prefetch is usually under way
+        DossierPrefetcher.Listener listener = new DossierPrefetcher.Listener() {
+            @Override
+            public void onDossierLoaded(PatientDossierDTO dossier) {
+                if (awaiting != this) return;
+                awaiting = null;
+                showDossier(patientId, dossier);
+            }
+
+            @Override
+            public void onDossierFailed() {
+                if (awaiting != this) return;
+                awaiting = null;
+                fetch(patientId);
+            }
+        };
+        if (prefetcher.await(patientId, listener)) {
+            awaiting = listener;
+            return;
+        }
+        fetch(patientId);
+    }
+
+    private void fetch(String patientId) {
+        RefreshScheduler scheduler = RefreshScheduler.getInstance();
+        Call<ApiResponse<PatientDossierDTO>> call = apiService.getPatientDossier(patientId, AppointmentPager.PAGE_SIZE);
+        inFlight = call;
+        call.enqueue(new Callback<ApiResponse<PatientDossierDTO>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<PatientDossierDTO>> call, Response<ApiResponse<PatientDossierDTO>> response) {
+                // Another patient was picked meanwhile
+                if (call != inFlight) return;
+                inFlight = null;
+                if (response.isSuccessful() && response.body() != null) {
+                    ApiResponse<PatientDossierDTO> apiResponse = response.body();
+                    if (apiResponse.isSuccess() && apiResponse.getData() != null) {
+                        DossierPrefetcher.getInstance().put(patientId, apiResponse.getData());
+                        showDossier(patientId, apiResponse.getData());
+                    } else {
+                        scheduler.refreshFailed(RefreshScheduler.Resource.PATIENT, patientId);
+                        errors.setValue(new Event<>("Patient non trouvé"));
+                    }
+                } else {
+                    scheduler.refreshFailed(RefreshScheduler.Resource.PATIENT, patientId);
+                    errors.setValue(new Event<>("Erreur lors du chargement du patient"));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<PatientDossierDTO>> call, Throwable t) {
+                if (call != inFlight) return;
+                inFlight = null;
+                scheduler.refreshFailed(RefreshScheduler.Resource.PATIENT, patientId);
+                errors.setValue(new Event<>("Erreur réseau"));
+            }
+        });
+    }
+
+    private void showDossier(String patientId, PatientDossierDTO dossier) {
+        RefreshScheduler.getInstance().refreshSucceeded(RefreshScheduler.Resource.PATIENT, patientId);
+        PatientDTO result = dossier.getPatient();
+        LocalStore localStore = LocalStore.getInstance(getApplication());
+        AppExecutors.diskIO().execute(() -> localStore.savePatient(result));
+        patient.setValue(result);
+        notes.setValue(dossier.getNotes());
+        if (dossier.getAppointments() != null) {
+            firstPage.setValue(new Event<>(dossier.getAppointments()));
+        }
+    }
+
+    private void cancel() {
+        if (awaiting != null) {
+            DossierPrefetcher.getInstance().stopAwaiting(awaiting);
+            awaiting = null;
+        }
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        cancel();
+    }
+}
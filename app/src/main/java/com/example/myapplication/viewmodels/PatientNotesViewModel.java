@@ -0,0 +1,106 @@
+package com.example.myapplication.viewmodels;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.RetrofitClient;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.UpdatePatientNotesRequest;
+import com.example.myapplication.data.DossierPrefetcher;
+import com.example.myapplication.data.LocalStore;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.AppExecutors;
+import com.example.myapplication.utils.Event;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * A patient's notes being edited. The text on screen is saved state, so an unsaved draft
+ * survives rotations and the process being killed in the background. A save keeps running
+ * when the screen goes away; its outcome reaches whichever screen is shown then.
+ */
+public class PatientNotesViewModel extends AndroidViewModel {
+
+    private static final String KEY_DRAFT = "draft";
+    // Whether the user typed since the notes were loaded; a late load must not overwrite that
+    private static final String KEY_EDITED = "edited";
+
+    private final SavedStateHandle savedState;
+    private final ApiService apiService = RetrofitClient.getApiService();
+    private final MutableLiveData<Boolean> saving = new MutableLiveData<>(false);
+    private final MutableLiveData<Event<String>> messages = new MutableLiveData<>();
+
+    public PatientNotesViewModel(@NonNull Application application, @NonNull SavedStateHandle savedState) {
+        super(application);
+        this.savedState = savedState;
+    }
+
+    public LiveData<String> getDraft() {
+        return savedState.getLiveData(KEY_DRAFT);
+    }
+
+    public LiveData<Boolean> isSaving() {
+        return saving;
+    }
+
+    public LiveData<Event<String>> getMessages() {
+        return messages;
+    }
+
+    public void setDraft(String text) {
+        if (text.equals(savedState.get(KEY_DRAFT))) return;
+        savedState.set(KEY_DRAFT, text);
+        savedState.set(KEY_EDITED, true);
+    }
+
+    // Notes loaded with the dossier; until then, or on error, the user can still write new ones
+    public void onNotesLoaded(String notes) {
+        if (notes == null || Boolean.TRUE.equals(savedState.get(KEY_EDITED))) return;
+        savedState.set(KEY_DRAFT, notes);
+    }
+
+    public void save(String patientId) {
+        if (Boolean.TRUE.equals(saving.getValue())) return;
+
+        String draft = savedState.get(KEY_DRAFT);
+        String notes = draft != null ? draft : "";
+        saving.setValue(true);
+
+        // Not cancelled in onCleared: a write outlives the screen that started it
+        apiService.updatePatientNotes(patientId, new UpdatePatientNotesRequest(notes)).enqueue(new Callback<ApiResponse<String>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<String>> call, Response<ApiResponse<String>> response) {
+                saving.setValue(false);
+
+                if (response.isSuccessful() && response.body() != null) {
+                    ApiResponse<String> apiResponse = response.body();
+                    if (apiResponse.isSuccess()) {
+                        // Keep the stored profile in step so the dossier does not show old notes offline
+                        String saved = apiResponse.getData() != null ? apiResponse.getData() : notes;
+                        LocalStore localStore = LocalStore.getInstance(getApplication());
+                        AppExecutors.diskIO().execute(() -> localStore.savePatientNotes(patientId, saved));
+                        RefreshScheduler.getInstance().invalidate(RefreshScheduler.Resource.PATIENT, patientId);
+                        DossierPrefetcher.getInstance().invalidate(patientId);
+                        messages.setValue(new Event<>("Notes enregistrées"));
+                    } else {
+                        String message = apiResponse.getError() != null ? apiResponse.getError().getMessage() : null;
+                        messages.setValue(new Event<>("Erreur: " + message));
+                    }
+                } else {
+                    messages.setValue(new Event<>("Erreur lors de l'enregistrement"));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<String>> call, Throwable t) {
+                saving.setValue(false);
+                messages.setValue(new Event<>("Erreur réseau"));
+            }
+        });
+    }
+}
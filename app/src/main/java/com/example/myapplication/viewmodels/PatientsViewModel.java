@@ -0,0 +1,338 @@
+package com.example.myapplication.viewmodels;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.SavedStateHandle;
+import com.example.myapplication.api.ApiService;
+import com.example.myapplication.api.RetrofitClient;
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.CursorPage;
+import com.example.myapplication.api.models.DoctorPatientDTO;
+import com.example.myapplication.data.AppointmentIndex;
+import com.example.myapplication.data.AppointmentRepository;
+import com.example.myapplication.data.PatientTypeahead;
+import com.example.myapplication.data.RefreshScheduler;
+import com.example.myapplication.utils.ComputePipeline;
+import com.example.myapplication.utils.DateUtils;
+import com.example.myapplication.utils.Event;
+import com.example.myapplication.utils.PrefixIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * The doctor's patients and the search over them. The loaded list, its search index and the
+ * results for the current query survive rotations; the query is saved state, so it also
+ * survives the process being killed in the background. Main thread only.
+ */
+public class PatientsViewModel extends AndroidViewModel {
+
+    private static final String KEY_QUERY = "query";
+    // Typing faster than this only searches once, for the last query
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+    // Further pages are fetched as the list is scrolled; until the last one is in, searches go
+    // to the server and the local index is built once, over the complete list
+    private static final int PAGE_SIZE = 200;
+
+    private final SavedStateHandle savedState;
+    private final ApiService apiService = RetrofitClient.getApiService();
+    private final MutableLiveData<List<DoctorPatientDTO>> results = new MutableLiveData<>();
+    private final MutableLiveData<Event<String>> errors = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> canLoadMore = new MutableLiveData<>(false);
+    private final PatientTypeahead typeahead;
+    private Call<ApiResponse<CursorPage<DoctorPatientDTO>>> inFlight;
+    // The loaded list is incomplete, so a non-empty query is answered by the server
+    private boolean serverSearch = false;
+    private PrefixIndex<DoctorPatientDTO> searchIndex;
+    // Pages loaded so far, and the cursor of the next one; null once the list is complete
+    private List<DoctorPatientDTO> loadedPatients = Collections.emptyList();
+    private String nextCursor;
+    private PrefixIndex.Match<DoctorPatientDTO> lastMatch;
+    // Separate so a keystroke never drops a reload, nor a reload a keystroke
+    private final ComputePipeline<PatientsResult> loadPipeline = new ComputePipeline<>();
+    private final ComputePipeline<PatientsResult> searchPipeline = new ComputePipeline<>();
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::searchPatients;
+
+    // Search index over the grouped patients and the match for one query, built off the main thread
+    private static class PatientsResult {
+        final PrefixIndex<DoctorPatientDTO> index;
+        final String query;
+        final PrefixIndex.Match<DoctorPatientDTO> match;
+
+        PatientsResult(PrefixIndex<DoctorPatientDTO> index, String query, PrefixIndex.Match<DoctorPatientDTO> match) {
+            this.index = index;
+            this.query = query;
+            this.match = match;
+        }
+    }
+
+    public PatientsViewModel(@NonNull Application application, @NonNull SavedStateHandle savedState) {
+        super(application);
+        this.savedState = savedState;
+        typeahead = new PatientTypeahead(apiService, new PatientTypeahead.Listener() {
+            @Override
+            public void onResults(String query, List<DoctorPatientDTO> patients) {
+                if (!query.equals(getQuery())) return;
+                lastMatch = null;
+                results.setValue(patients);
+            }
+
+            @Override
+            public void onError(String query, String message) {
+                errors.setValue(new Event<>(message));
+            }
+        });
+    }
+
+    // Patients matching the current query
+    public LiveData<List<DoctorPatientDTO>> getResults() {
+        return results;
+    }
+
+    public LiveData<Event<String>> getErrors() {
+        return errors;
+    }
+
+    // True while the unfiltered list is shown and the server has more pages of it
+    public LiveData<Boolean> getCanLoadMore() {
+        return canLoadMore;
+    }
+
+    public String getQuery() {
+        String query = savedState.get(KEY_QUERY);
+        return query != null ? query : "";
+    }
+
+    public boolean hasLoaded() {
+        return searchIndex != null || inFlight != null || nextCursor != null;
+    }
+
+    public void setQuery(String query) {
+        // Also called when a recreated search box restores its text
+        if (query.equals(getQuery())) return;
+        savedState.set(KEY_QUERY, query);
+        updateCanLoadMore();
+        searchHandler.removeCallbacks(searchRunnable);
+        if (searchesServer()) {
+            // Debounced, cached and cancelled by the typeahead itself
+            searchPipeline.cancel();
+            typeahead.search(query);
+        } else {
+            typeahead.cancel();
+            searchHandler.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+        }
+    }
+
+    // One row per patient with server-side counts; starts again from the first page
+    public void load() {
+        if (inFlight != null) inFlight.cancel();
+        RefreshScheduler.getInstance().refreshStarted(RefreshScheduler.Resource.PATIENTS, null);
+        typeahead.clearCache();
+        loadPage(null);
+    }
+
+    // Called by the list as the user nears its end; ignored while a page is loading or filtered
+    public void loadNextPage() {
+        if (inFlight != null || nextCursor == null || !getQuery().trim().isEmpty()) return;
+        loadPage(nextCursor);
+    }
+
+    private void loadPage(String cursor) {
+        boolean first = cursor == null;
+        Call<ApiResponse<CursorPage<DoctorPatientDTO>>> call = apiService.getMyPatients(cursor, PAGE_SIZE);
+        inFlight = call;
+        call.enqueue(new Callback<ApiResponse<CursorPage<DoctorPatientDTO>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<CursorPage<DoctorPatientDTO>>> call, Response<ApiResponse<CursorPage<DoctorPatientDTO>>> response) {
+                if (call != inFlight) return;
+                inFlight = null;
+
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                        && response.body().getData() != null) {
+                    CursorPage<DoctorPatientDTO> page = response.body().getData();
+                    if (first) {
+                        RefreshScheduler.getInstance().refreshSucceeded(RefreshScheduler.Resource.PATIENTS, null);
+                    }
+                    List<DoctorPatientDTO> patients = first ? new ArrayList<>() : new ArrayList<>(loadedPatients);
+                    if (page.getItems() != null) patients.addAll(page.getItems());
+                    onPageLoaded(patients, page.hasMore() ? page.getNextCursor() : null, first);
+                } else {
+                    onPageFailed(first);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<CursorPage<DoctorPatientDTO>>> call, Throwable t) {
+                if (call != inFlight) return;
+                inFlight = null;
+                onPageFailed(first);
+            }
+        });
+    }
+
+    private void onPageLoaded(List<DoctorPatientDTO> patients, String cursor, boolean first) {
+        loadedPatients = patients;
+        nextCursor = cursor;
+        serverSearch = cursor != null;
+        updateCanLoadMore();
+        if (cursor == null) {
+            // Complete: indexed once, from here on searches stay local
+            processPatientsData(patients);
+            return;
+        }
+        // Incomplete: no index yet, the unfiltered list is shown as it grows
+        loadPipeline.cancel();
+        searchPipeline.cancel();
+        searchIndex = null;
+        lastMatch = null;
+        if (searchesServer()) {
+            if (first) typeahead.search(getQuery());
+        } else {
+            results.setValue(patients);
+        }
+    }
+
+    private void onPageFailed(boolean first) {
+        if (first) {
+            loadFromAppointments();
+        } else {
+            // The cursor is kept, so the next scroll retries
+            updateCanLoadMore();
+        }
+    }
+
+    private void updateCanLoadMore() {
+        canLoadMore.setValue(nextCursor != null && getQuery().trim().isEmpty());
+    }
+
+    // Offline fallback: count from the locally stored appointments
+    private void loadFromAppointments() {
+        RefreshScheduler.getInstance().refreshFailed(RefreshScheduler.Resource.PATIENTS, null);
+        AppointmentRepository.getInstance(getApplication()).getAppointmentIndex(new AppointmentRepository.IndexListener() {
+            @Override
+            public void onIndexReady(AppointmentIndex index) {
+                serverSearch = false;
+                nextCursor = null;
+                updateCanLoadMore();
+                String query = getQuery();
+                loadPipeline.submit(() -> buildResult(listPatients(index), query), PatientsViewModel.this::onPatientsLoaded);
+            }
+
+            @Override
+            public void onIndexError(String message) {
+                errors.setValue(new Event<>("Erreur réseau"));
+            }
+        });
+    }
+
+    private void processPatientsData(List<DoctorPatientDTO> patients) {
+        String query = getQuery();
+        loadPipeline.submit(() -> buildResult(patients, query), this::onPatientsLoaded);
+    }
+
+    // Runs on the compute thread
+    private static PatientsResult buildResult(List<DoctorPatientDTO> patients, String query) {
+        PrefixIndex<DoctorPatientDTO> index = PrefixIndex.build(patients, DoctorPatientDTO::getName);
+        return new PatientsResult(index, query, index.search(query, null));
+    }
+
+    private void onPatientsLoaded(PatientsResult result) {
+        // Any search still running was against the previous list
+        searchPipeline.cancel();
+        searchIndex = result.index;
+        if (searchesServer()) {
+            typeahead.search(getQuery());
+            return;
+        }
+        showPatients(result);
+        if (!result.query.equals(getQuery())) {
+            searchPatients();
+        }
+    }
+
+    private boolean searchesServer() {
+        return serverSearch && !getQuery().trim().isEmpty();
+    }
+
+    private void searchPatients() {
+        if (searchesServer()) {
+            typeahead.search(getQuery());
+            return;
+        }
+        PrefixIndex<DoctorPatientDTO> index = searchIndex;
+        if (index == null) {
+            // Still paging: an empty query lists what has been loaded so far. Otherwise not
+            // loaded yet, and the load applies the query when it finishes
+            if (nextCursor != null) {
+                lastMatch = null;
+                results.setValue(loadedPatients);
+            }
+            return;
+        }
+        String query = getQuery();
+        PrefixIndex.Match<DoctorPatientDTO> previous = lastMatch;
+        searchPipeline.submit(() -> new PatientsResult(index, query, index.search(query, previous)),
+                this::showPatients);
+    }
+
+    private void showPatients(PatientsResult result) {
+        lastMatch = result.match;
+        results.setValue(result.match.getItems());
+    }
+
+    // Runs on the compute thread; O(appointments), the index already grouped them by patient
+    private static List<DoctorPatientDTO> listPatients(AppointmentIndex index) {
+        long now = System.currentTimeMillis();
+        List<DoctorPatientDTO> patients = new ArrayList<>(index.getPatientCount());
+        for (String patientId : index.getPatientIds()) {
+            List<AppointmentDTO> visits = index.getForPatient(patientId);
+            AppointmentDTO lastVisit = null;
+            for (AppointmentDTO visit : visits) {
+                long time = visit.getAppointmentTime();
+                if (time != DateUtils.INVALID_TIME && time <= now && !"Cancelled".equalsIgnoreCase(visit.getStatus())
+                        && (lastVisit == null || time > lastVisit.getAppointmentTime())) {
+                    lastVisit = visit;
+                }
+            }
+            patients.add(new DoctorPatientDTO(patientId, patientName(visits), visits.size(),
+                    lastVisit != null ? lastVisit.getAppointmentDate() : null));
+        }
+
+        // Sort by name, like the server
+        Collections.sort(patients, Comparator.comparing(DoctorPatientDTO::getName,
+                Comparator.nullsLast(Comparator.<String>naturalOrder())));
+        return patients;
+    }
+
+    // Rows saved without the joined name leave it null; any visit that has one will do
+    private static String patientName(List<AppointmentDTO> visits) {
+        for (AppointmentDTO visit : visits) {
+            String name = visit.getPatientName();
+            if (name != null && !name.trim().isEmpty()) return name;
+        }
+        return null;
+    }
+
+    @Override
+    protected void onCleared() {
+        searchHandler.removeCallbacks(searchRunnable);
+        typeahead.cancel();
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+        loadPipeline.cancel();
+        searchPipeline.cancel();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.myapplication.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.junit.Test;
+
+/**
+ * Decodes a 50k-appointment ApiResponse the way GsonConverterFactory does, from a reader over the
+ * body bytes, once through StreamingTypeAdapterFactory and once through reflective Gson, and
+ * prints the median time and the bytes allocated per decode. Runs on the JVM, so the numbers
+ * are a relative comparison, not what a device measures. Timings are only printed, they are
+ * too noisy to assert on; allocation is stable enough to hold the hand-written path to.
+ */
+public class StreamingJsonBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 7;
+
+    private static final TypeToken<ApiResponse<List<AppointmentDTO>>> TYPE =
+            new TypeToken<ApiResponse<List<AppointmentDTO>>>() {};
+
+    private static final String[] STATUSES = {"Scheduled", "Completed", "Cancelled"};
+    private static final String[] NAMES = {"Hélène Dupont", "Jean-Marc Petit", "Élodie Œuvray", "Marc Durand"};
+    private static final String[] DOCTORS = {"Dr Martin", "Dr Roux", "Dr Lefèvre"};
+
+    private static final class Result {
+        final String name;
+        final long medianNanos;
+        final long bytesPerRun;
+
+        Result(String name, long medianNanos, long bytesPerRun) {
+            this.name = name;
+            this.medianNanos = medianNanos;
+            this.bytesPerRun = bytesPerRun;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-10s %8.1f ms %10.1f MB allocated",
+                    name, medianNanos / 1e6, bytesPerRun / (1024.0 * 1024.0));
+        }
+    }
+
+    // What the server sends for GET /appointments: every field set, plus one the app does not read
+    private static byte[] payload() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(ROWS * 400);
+        try (JsonWriter out = new JsonWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            out.beginObject();
+            out.name("success").value(true);
+            out.name("data").beginArray();
+            for (int i = 0; i < ROWS; i++) {
+                out.beginObject();
+                out.name("id").value(String.format(Locale.ROOT, "4f1c2a9e-0000-4000-8000-%012d", i));
+                out.name("patientId").value("patient-" + (i % 5_000));
+                out.name("doctorId").value("doctor-" + (i % 3));
+                out.name("appointmentDate").value(String.format(Locale.ROOT, "2024-%02d-%02dT%02d:%02d:00",
+                        1 + i % 12, 1 + i % 28, 8 + i % 10, (i % 4) * 15));
+                out.name("reason").value("Consultation de suivi n°" + i);
+                out.name("notes").value(i % 3 == 0 ? null : "Apporter les derniers résultats d'analyse");
+                out.name("doctorNotes").value(i % 5 == 0 ? "RAS" : null);
+                out.name("status").value(STATUSES[i % STATUSES.length]);
+                out.name("patientName").value(NAMES[i % NAMES.length]);
+                out.name("doctorName").value(DOCTORS[i % DOCTORS.length]);
+                out.name("doctorSpecialization").value("Médecine générale");
+                out.name("createdAt").value("2023-12-31T23:59:59.1234567");
+                out.endObject();
+            }
+            out.endArray();
+            out.name("error").nullValue();
+            out.endObject();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ApiResponse<List<AppointmentDTO>> decode(TypeAdapter<ApiResponse<List<AppointmentDTO>>> adapter,
+                                                            Gson gson, byte[] body) throws IOException {
+        try (JsonReader reader = gson.newJsonReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            ApiResponse<List<AppointmentDTO>> response = adapter.read(reader);
+            // The app reads every row's time right after decoding (sorting, indexing); the
+            // streaming path parses it in the constructor, the reflective one on first use
+            for (AppointmentDTO appointment : response.getData()) {
+                appointment.getAppointmentDay();
+            }
+            return response;
+        }
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static Result measure(String name, Gson gson, byte[] body) throws IOException {
+        TypeAdapter<ApiResponse<List<AppointmentDTO>>> adapter = gson.getAdapter(TYPE);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            assertEquals(ROWS, decode(adapter, gson, body).getData().size());
+        }
+        long[] nanos = new long[MEASURED_RUNS];
+        long allocated = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            ApiResponse<List<AppointmentDTO>> response = decode(adapter, gson, body);
+            nanos[i] = System.nanoTime() - start;
+            allocated += allocatedBytes() - bytesBefore;
+            assertEquals(ROWS, response.getData().size());
+        }
+        Arrays.sort(nanos);
+        return new Result(name, nanos[MEASURED_RUNS / 2], allocated / MEASURED_RUNS);
+    }
+
+    @Test
+    public void decode50kAppointments() throws IOException {
+        byte[] body = payload();
+        Gson reflective = new Gson();
+        Gson streaming = new GsonBuilder().registerTypeAdapterFactory(new StreamingTypeAdapterFactory()).create();
+
+        // Same rows either way before anything is timed
+        ApiResponse<List<AppointmentDTO>> expected = decode(reflective.getAdapter(TYPE), reflective, body);
+        ApiResponse<List<AppointmentDTO>> actual = decode(streaming.getAdapter(TYPE), streaming, body);
+        assertEquals(reflective.toJsonTree(expected, TYPE.getType()), reflective.toJsonTree(actual, TYPE.getType()));
+
+        // Alternate so neither side always runs on a warmer JVM
+        Result reflectiveFirst = measure("reflective", reflective, body);
+        Result streamingResult = measure("streaming", streaming, body);
+        Result reflectiveAgain = measure("reflective", reflective, body);
+
+        System.out.printf(Locale.ROOT, "%d appointments, %.1f MB of JSON%n", ROWS, body.length / (1024.0 * 1024.0));
+        System.out.println(reflectiveFirst);
+        System.out.println(streamingResult);
+        System.out.println(reflectiveAgain);
+
+        // Zero everywhere on a JVM that cannot count allocations
+        long reflectiveBytes = Math.min(reflectiveFirst.bytesPerRun, reflectiveAgain.bytesPerRun);
+        assertTrue("streaming allocates more than reflection: " + streamingResult + " vs " + reflectiveFirst,
+                streamingResult.bytesPerRun <= reflectiveBytes + reflectiveBytes / 20);
+    }
+}
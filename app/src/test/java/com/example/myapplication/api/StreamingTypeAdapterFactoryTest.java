@@ -0,0 +1,134 @@
+package com.example.myapplication.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.myapplication.api.models.ApiResponse;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.api.models.DashboardDTO;
+import com.example.myapplication.api.models.DoctorDTO;
+import com.example.myapplication.api.models.PatientDTO;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * The hand-written adapters must decode and encode exactly what Gson's reflective binding does.
+ * Every case is decoded both ways and compared through the reflective encoding of the results.
+ */
+public class StreamingTypeAdapterFactoryTest {
+
+    private static final Type APPOINTMENTS = new TypeToken<ApiResponse<List<AppointmentDTO>>>() {}.getType();
+    private static final Type PATIENT = new TypeToken<ApiResponse<PatientDTO>>() {}.getType();
+    private static final Type DOCTORS = new TypeToken<ApiResponse<List<DoctorDTO>>>() {}.getType();
+    private static final Type DASHBOARD = new TypeToken<ApiResponse<DashboardDTO>>() {}.getType();
+
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(new StreamingTypeAdapterFactory())
+            .create();
+
+    // Decodes json both ways and checks the two results hold the same values
+    private void assertSameDecoding(String json, Type type) {
+        Object expected = reflective.fromJson(json, type);
+        Object actual = streaming.fromJson(json, type);
+        assertEquals(reflective.toJsonTree(expected, type), reflective.toJsonTree(actual, type));
+    }
+
+    // Encodes with the streaming adapters, decodes reflectively: nothing may be lost on the way
+    private void assertRoundTrip(String json, Type type) {
+        Object decoded = streaming.fromJson(json, type);
+        String encoded = streaming.toJson(decoded, type);
+        assertEquals(reflective.toJsonTree(decoded, type),
+                reflective.toJsonTree(reflective.fromJson(encoded, type), type));
+    }
+
+    private void assertEquivalent(String json, Type type) {
+        assertSameDecoding(json, type);
+        assertRoundTrip(json, type);
+    }
+
+    private static JsonElement tree(String json) {
+        return new JsonParser().parse(json);
+    }
+
+    @Test
+    public void appointmentList() {
+        assertEquivalent("{\"success\":true,\"data\":["
+                + "{\"id\":\"a1\",\"patientId\":\"p1\",\"doctorId\":\"d1\",\"appointmentDate\":\"2024-03-05T14:30:00\","
+                + "\"reason\":\"Contrôle\",\"notes\":\"à jeun\",\"doctorNotes\":null,\"status\":\"Scheduled\","
+                + "\"patientName\":\"Hélène Dupont\",\"doctorName\":\"Dr Martin\",\"doctorSpecialization\":\"Cardiologie\"},"
+                + "{\"id\":\"a2\",\"patientId\":\"p2\",\"doctorId\":\"d1\",\"appointmentDate\":\"2024-03-05T15:00:00.1234567\","
+                + "\"status\":\"Completed\"}"
+                + "],\"error\":null}", APPOINTMENTS);
+    }
+
+    @Test
+    public void emptyAndMissingData() {
+        assertEquivalent("{\"success\":true,\"data\":[]}", APPOINTMENTS);
+        assertEquivalent("{\"success\":true}", APPOINTMENTS);
+        assertEquivalent("{\"success\":true,\"data\":null}", APPOINTMENTS);
+        assertEquivalent("{}", APPOINTMENTS);
+    }
+
+    @Test
+    public void errorResponse() {
+        String json = "{\"success\":false,\"data\":null,"
+                + "\"error\":{\"code\":\"NOT_FOUND\",\"message\":\"Rendez-vous introuvable\"}}";
+        assertEquivalent(json, APPOINTMENTS);
+
+        ApiResponse<List<AppointmentDTO>> response = streaming.fromJson(json, APPOINTMENTS);
+        assertEquals("NOT_FOUND", response.getError().getCode());
+        assertNull(response.getData());
+    }
+
+    @Test
+    public void unknownFieldsAreSkipped() {
+        assertEquivalent("{\"success\":true,\"traceId\":\"x\",\"data\":[{\"id\":\"a1\","
+                + "\"createdAt\":\"2024-01-01T00:00:00\",\"tags\":[\"a\",{\"b\":[1,2]}],\"extra\":{\"k\":null},"
+                + "\"status\":\"Scheduled\"}],\"error\":{\"code\":\"W\",\"message\":\"m\",\"details\":[1]}}",
+                APPOINTMENTS);
+    }
+
+    @Test
+    public void scalarsInStringFieldsAreAcceptedLikeReflection() {
+        assertSameDecoding("{\"success\":true,\"data\":[{\"id\":42,\"patientId\":true,\"reason\":1.5}]}",
+                APPOINTMENTS);
+    }
+
+    @Test
+    public void patient() {
+        assertEquivalent("{\"success\":true,\"data\":{\"id\":\"p1\",\"email\":\"helene@example.fr\","
+                + "\"firstName\":\"Hélène\",\"lastName\":\"Dupont\",\"phone\":\"+33 6 12 34 56 78\","
+                + "\"dateOfBirth\":\"1980-02-29T00:00:00\",\"address\":\"1 rue de la Paix\\nParis\","
+                + "\"emergencyContactName\":null,\"emergencyContactPhone\":\"\",\"doctorNotes\":\"\\\"allergie\\\"\","
+                + "\"registrationDate\":\"2020-01-01T08:00:00\"}}", PATIENT);
+    }
+
+    @Test
+    public void doctors() {
+        assertEquivalent("{\"success\":true,\"data\":[{\"id\":\"d1\",\"name\":\"Dr Martin\",\"specialization\":\"Cardiologie\"},"
+                + "{\"id\":\"d2\",\"name\":null}]}", DOCTORS);
+    }
+
+    @Test
+    public void dashboard() {
+        assertEquivalent("{\"success\":true,\"data\":{\"todayAppointments\":12,\"pendingAppointments\":40,"
+                + "\"totalPatients\":1500,\"totalDoctors\":8}}", DASHBOARD);
+        assertEquivalent("{\"success\":true,\"data\":{\"todayAppointments\":null,\"totalDoctors\":\"3\"}}", DASHBOARD);
+    }
+
+    @Test
+    public void encodedResponseMatchesTheReflectiveEncoding() {
+        ApiResponse<List<AppointmentDTO>> response = reflective.fromJson("{\"success\":true,\"data\":["
+                + "{\"id\":\"a1\",\"patientId\":\"p1\",\"appointmentDate\":\"2024-03-05T14:30:00\",\"status\":\"Scheduled\"}]}",
+                APPOINTMENTS);
+        // Null fields are left out both ways, as Gson does by default
+        assertEquals(tree(reflective.toJson(response, APPOINTMENTS)), tree(streaming.toJson(response, APPOINTMENTS)));
+    }
+}
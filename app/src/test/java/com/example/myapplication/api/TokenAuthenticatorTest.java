@@ -0,0 +1,126 @@
+package com.example.myapplication.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+public class TokenAuthenticatorTest {
+
+    private static final int PARALLEL_CALLS = 8;
+    // No dots, so TokenHolder does not try to decode an expiry
+    private static final String STALE = "stale-token";
+    private static final String FRESH = "fresh-token";
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicInteger refreshCalls = new AtomicInteger();
+    private final AtomicInteger replays = new AtomicInteger();
+    // Holds every stale call until all of them are in, so the 401s really arrive together
+    private final CountDownLatch allStaleArrived = new CountDownLatch(PARALLEL_CALLS);
+    private final TokenHolder tokenHolder = TokenHolder.getInstance();
+
+    @Before
+    public void setUp() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                if ("/api/auth/refresh".equals(request.getPath())) {
+                    refreshCalls.incrementAndGet();
+                    return new MockResponse().setBody("{\"success\":true,\"data\":{\"token\":\"" + FRESH + "\"}}");
+                }
+                String authorization = request.getHeader("Authorization");
+                if (("Bearer " + FRESH).equals(authorization)) {
+                    replays.incrementAndGet();
+                    return new MockResponse().setBody("{}");
+                }
+                allStaleArrived.countDown();
+                allStaleArrived.await(5, TimeUnit.SECONDS);
+                return new MockResponse().setResponseCode(401);
+            }
+        });
+        server.start();
+        tokenHolder.set(STALE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tokenHolder.clear();
+        server.shutdown();
+    }
+
+    @Test
+    public void parallel401sShareOneRefreshAndAreAllReplayed() throws Exception {
+        OkHttpClient client = newClient();
+
+        ExecutorService threads = Executors.newFixedThreadPool(PARALLEL_CALLS);
+        try {
+            List<Future<Integer>> codes = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_CALLS; i++) {
+                codes.add(threads.submit(() -> {
+                    Request request = new Request.Builder().url(server.url("/api/appointments")).build();
+                    try (Response response = client.newCall(request).execute()) {
+                        return response.code();
+                    }
+                }));
+            }
+            for (Future<Integer> code : codes) {
+                assertEquals(200, (int) code.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(1, refreshCalls.get());
+        assertEquals(PARALLEL_CALLS, replays.get());
+        assertEquals(FRESH, tokenHolder.get());
+    }
+
+    @Test
+    public void refusedRefreshLetsThe401Through() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("/api/auth/refresh".equals(request.getPath())) refreshCalls.incrementAndGet();
+                return new MockResponse().setResponseCode(401);
+            }
+        });
+        OkHttpClient client = newClient();
+
+        Request request = new Request.Builder().url(server.url("/api/appointments")).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(401, response.code());
+        }
+        assertEquals(1, refreshCalls.get());
+        assertEquals(STALE, tokenHolder.get());
+    }
+
+    // Wired like RetrofitClient, with renewals going to the local server
+    private OkHttpClient newClient() {
+        ApiService authApi = new Retrofit.Builder()
+                .baseUrl(server.url("/api/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+        TokenRefresher refresher = new TokenRefresher(tokenHolder, () -> authApi);
+        return AuthInterceptor.install(new OkHttpClient.Builder(), tokenHolder, refresher).build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.myapplication.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.example.myapplication.utils.DateUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AppointmentIndexTest {
+
+    private TimeZone savedZone;
+
+    private final AppointmentDTO aliceMonday = appointment("a1", "alice", "dr-martin", "2024-03-04T09:00:00");
+    private final AppointmentDTO bobMonday = appointment("a2", "bob", "dr-roux", "2024-03-04T10:30:00");
+    private final AppointmentDTO aliceTuesday = appointment("a3", "alice", "dr-roux", "2024-03-05T14:00:00");
+    private final AppointmentDTO noPatient = appointment("a4", null, "dr-martin", "2024-03-05T16:00:00");
+
+    @Before
+    public void setUp() {
+        savedZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(savedZone);
+    }
+
+    private static AppointmentDTO appointment(String id, String patientId, String doctorId, String date) {
+        return new AppointmentDTO(id, patientId, doctorId, date, null, null, null, "Scheduled", null, null, null);
+    }
+
+    private AppointmentIndex build() {
+        return AppointmentIndex.build(Arrays.asList(aliceMonday, bobMonday, aliceTuesday, noPatient));
+    }
+
+    @Test
+    public void bucketsByDayKeepListOrder() {
+        AppointmentIndex index = build();
+        assertEquals(Arrays.asList(aliceMonday, bobMonday), index.getForDay(DateUtils.epochDay(2024, 3, 4)));
+        assertEquals(Arrays.asList(aliceTuesday, noPatient), index.getForDay(DateUtils.epochDay(2024, 3, 5)));
+        assertTrue(index.getForDay(DateUtils.epochDay(2024, 3, 6)).isEmpty());
+    }
+
+    @Test
+    public void dayIsTheLocalDay() {
+        // Built while the device is in Tokyo: 16:00 UTC on the 5th is already the 6th there
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        AppointmentDTO late = appointment("a5", "carol", "dr-martin", "2024-03-05T16:00:00Z");
+        AppointmentIndex index = AppointmentIndex.build(Collections.singletonList(late));
+        assertEquals(Collections.singletonList(late), index.getForDay(DateUtils.epochDay(2024, 3, 6)));
+    }
+
+    @Test
+    public void bucketsByPatientAndDoctor() {
+        AppointmentIndex index = build();
+        assertEquals(Arrays.asList(aliceMonday, aliceTuesday), index.getForPatient("alice"));
+        assertEquals(Collections.singletonList(bobMonday), index.getForPatient("bob"));
+        assertEquals(Arrays.asList(aliceMonday, noPatient), index.getForDoctor("dr-martin"));
+        assertEquals(Arrays.asList(bobMonday, aliceTuesday), index.getForDoctor("dr-roux"));
+        assertTrue(index.getForPatient("nobody").isEmpty());
+        assertTrue(index.getForDoctor(null).isEmpty());
+    }
+
+    @Test
+    public void countsSkipMissingIds() {
+        AppointmentIndex index = build();
+        assertEquals(4, index.getTotalCount());
+        assertEquals(2, index.getPatientCount());
+        assertEquals(2, index.getDoctorCount());
+    }
+
+    @Test
+    public void patientIdsComeInOrderOfFirstAppointment() {
+        AppointmentIndex index = AppointmentIndex.build(Arrays.asList(bobMonday, aliceMonday, aliceTuesday));
+        assertEquals(Arrays.asList("bob", "alice"), new ArrayList<>(index.getPatientIds()));
+    }
+
+    @Test
+    public void emptyListGivesEmptyBuckets() {
+        AppointmentIndex index = AppointmentIndex.build(Collections.<AppointmentDTO>emptyList());
+        assertEquals(0, index.getTotalCount());
+        assertEquals(0, index.getPatientCount());
+        assertTrue(index.getForDay(DateUtils.today()).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void bucketsCannotBeModified() {
+        build().getForPatient("alice").clear();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.myapplication.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication.api.models.AppointmentChanges;
+import com.example.myapplication.api.models.AppointmentDTO;
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+// SDK 34: newer SDKs need Robolectric on Java 21
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class LocalStoreTest {
+
+    private final AppointmentDTO ownVisit =
+            appointment("a1", "alice", "dr-martin", "2024-03-04T09:00:00");
+    // From alice's history: another doctor's visit, which /changes never sends to dr-martin
+    private final AppointmentDTO otherDoctorsVisit =
+            appointment("a2", "alice", "dr-roux", "2024-02-12T10:30:00");
+
+    private LocalStore store;
+
+    @Before
+    public void setUp() {
+        store = new LocalStore(RuntimeEnvironment.getApplication());
+    }
+
+    private static AppointmentDTO appointment(String id, String patientId, String doctorId, String date) {
+        return new AppointmentDTO(id, patientId, doctorId, date, null, null, null, "Scheduled", null, null, null);
+    }
+
+    // A /changes answer, built the way Retrofit would build it
+    private static AppointmentChanges changes(String token, boolean reset, AppointmentDTO... upserted) {
+        Gson gson = new Gson();
+        String json = "{\"token\":" + gson.toJson(token) + ",\"reset\":" + reset
+                + ",\"deletedIds\":[],\"upserted\":" + gson.toJson(Arrays.asList(upserted)) + "}";
+        return gson.fromJson(json, AppointmentChanges.class);
+    }
+
+    private static List<String> ids(List<AppointmentDTO> appointments) {
+        List<String> ids = new ArrayList<>();
+        for (AppointmentDTO appointment : appointments) {
+            ids.add(appointment.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void nothingSyncedMeansNoSnapshot() {
+        store.savePagedAppointments(Collections.singletonList(otherDoctorsVisit));
+        assertNull(store.readAppointmentSnapshot());
+    }
+
+    @Test
+    public void historyPagesDoNotLeakIntoTheSyncSnapshot() {
+        store.applyAppointmentChanges(changes("t1", true, ownVisit));
+        store.savePagedAppointments(Arrays.asList(ownVisit, otherDoctorsVisit));
+
+        LocalStore.AppointmentSnapshot snapshot = store.readAppointmentSnapshot();
+        assertEquals("t1", snapshot.changeToken);
+        assertEquals(Collections.singletonList("a1"), ids(snapshot.appointments));
+
+        // The history itself still comes back whole
+        assertEquals(Arrays.asList("a1", "a2"), ids(store.getAppointmentsForPatient("alice", 50)));
+    }
+
+    @Test
+    public void recentListPagesDoNotLeakIntoTheSyncSnapshot() {
+        store.applyAppointmentChanges(changes("t1", true));
+        store.savePagedAppointments(Collections.singletonList(otherDoctorsVisit));
+
+        assertTrue(store.readAppointmentSnapshot().appointments.isEmpty());
+        assertEquals(Collections.singletonList("a2"), ids(store.getRecentAppointments(50)));
+    }
+
+    @Test
+    public void pagedListsDoNotSeeSyncedRows() {
+        store.applyAppointmentChanges(changes("t1", true, ownVisit));
+        assertTrue(store.getRecentAppointments(50).isEmpty());
+        assertTrue(store.getAppointmentsForPatient("alice", 50).isEmpty());
+    }
+
+    @Test
+    public void syncResetKeepsThePagedLists() {
+        store.savePagedAppointments(Collections.singletonList(otherDoctorsVisit));
+        store.applyAppointmentChanges(changes("t1", true, ownVisit));
+        store.applyAppointmentChanges(changes("t2", true));
+
+        assertTrue(store.readAppointmentSnapshot().appointments.isEmpty());
+        assertEquals(Collections.singletonList("a2"), ids(store.getRecentAppointments(50)));
+    }
+
+    @Test
+    public void clearDropsBoth() {
+        store.applyAppointmentChanges(changes("t1", true, ownVisit));
+        store.savePagedAppointments(Collections.singletonList(otherDoctorsVisit));
+        store.clear();
+
+        assertNull(store.readAppointmentSnapshot());
+        assertTrue(store.getRecentAppointments(50).isEmpty());
+    }
+}
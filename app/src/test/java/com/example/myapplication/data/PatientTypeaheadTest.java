@@ -0,0 +1,68 @@
+package com.example.myapplication.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.myapplication.api.models.DoctorPatientDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class PatientTypeaheadTest {
+
+    private static final List<DoctorPatientDTO> PATIENTS = Arrays.asList(
+            patient("Hélène Dupont"),
+            patient("Marc Durand"),
+            patient("Helen Hunt"),
+            patient("Paul Dumas"));
+
+    private static DoctorPatientDTO patient(String name) {
+        return new DoctorPatientDTO(name, name, 1, null);
+    }
+
+    private static List<String> narrow(List<DoctorPatientDTO> complete, String query) {
+        List<DoctorPatientDTO> narrowed = PatientTypeahead.narrow(complete, PatientTypeahead.foldCase(query));
+        if (narrowed == null) return null;
+        List<String> names = new ArrayList<>();
+        for (DoctorPatientDTO patient : narrowed) names.add(patient.getName());
+        return names;
+    }
+
+    @Test
+    public void foldCaseOnlyLowersAscii() {
+        assertEquals("hélène", PatientTypeahead.foldCase("HéLène"));
+        assertEquals("Élodie", PatientTypeahead.foldCase("Élodie"));
+    }
+
+    @Test
+    public void matchesFirstLastAndBothOrders() {
+        assertEquals(Arrays.asList("Hélène Dupont", "Marc Durand", "Paul Dumas"), narrow(PATIENTS, "du"));
+        assertEquals(Collections.singletonList("Paul Dumas"), narrow(PATIENTS, "dum"));
+        assertEquals(Collections.singletonList("Marc Durand"), narrow(PATIENTS, "MARC D"));
+        assertEquals(Collections.singletonList("Marc Durand"), narrow(PATIENTS, "durand m"));
+        assertEquals(Collections.singletonList("Helen Hunt"), narrow(PATIENTS, "hel"));
+    }
+
+    @Test
+    public void staysAccentSensitiveLikeTheServer() {
+        assertEquals(Collections.singletonList("Hélène Dupont"), narrow(PATIENTS, "hél"));
+        assertEquals(Collections.<String>emptyList(), narrow(PATIENTS, "HÉL"));
+    }
+
+    @Test
+    public void matchesPrefixesNotInnerText() {
+        assertEquals(Collections.<String>emptyList(), narrow(PATIENTS, "pont"));
+        assertEquals(Collections.<String>emptyList(), narrow(PATIENTS, "len"));
+        assertEquals(Collections.singletonList("Hélène Dupont"), narrow(PATIENTS, "dupont hé"));
+    }
+
+    @Test
+    public void givesUpWhenANameCannotBeSplit() {
+        List<DoctorPatientDTO> patients = new ArrayList<>(PATIENTS);
+        patients.add(patient("Jean Pierre Martin"));
+        assertNull(narrow(patients, "pierre"));
+        assertNull(narrow(Collections.singletonList(patient(null)), "a"));
+    }
+}
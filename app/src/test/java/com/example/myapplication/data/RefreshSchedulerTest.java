@@ -0,0 +1,132 @@
+package com.example.myapplication.data;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.myapplication.data.RefreshScheduler.Resource;
+import org.junit.Test;
+
+public class RefreshSchedulerTest {
+
+    private static final String DAY = "2024-03-05";
+    private static final String OTHER_DAY = "2024-03-06";
+
+    private long now = 1_000_000;
+    private final RefreshScheduler scheduler = new RefreshScheduler(() -> now);
+
+    private void refreshed(Resource resource, String scope) {
+        scheduler.refreshStarted(resource, scope);
+        scheduler.refreshSucceeded(resource, scope);
+    }
+
+    @Test
+    public void unknownDataIsDue() {
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS));
+        assertTrue(scheduler.needsRefresh(Resource.PATIENT, "p1"));
+    }
+
+    @Test
+    public void freshDataIsKeptUntilItsBudgetRunsOut() {
+        refreshed(Resource.APPOINTMENTS, null);
+        now += Resource.APPOINTMENTS.staleAfterMs - 1;
+        assertFalse(scheduler.needsRefresh(Resource.APPOINTMENTS));
+        now += 1;
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS));
+    }
+
+    @Test
+    public void budgetsDifferPerResource() {
+        refreshed(Resource.APPOINTMENTS, null);
+        refreshed(Resource.PATIENTS, null);
+        now += Resource.APPOINTMENTS.staleAfterMs;
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS));
+        assertFalse(scheduler.needsRefresh(Resource.PATIENTS));
+        now += Resource.PATIENTS.staleAfterMs - Resource.APPOINTMENTS.staleAfterMs;
+        assertTrue(scheduler.needsRefresh(Resource.PATIENTS));
+    }
+
+    @Test
+    public void nullScopeAndEmptyScopeAreTheSame() {
+        refreshed(Resource.DASHBOARD, null);
+        assertFalse(scheduler.needsRefresh(Resource.DASHBOARD, ""));
+    }
+
+    @Test
+    public void runningFetchIsNotRepeatedWithinTheMinimumInterval() {
+        scheduler.refreshStarted(Resource.APPOINTMENTS, DAY);
+        now += Resource.APPOINTMENTS.minIntervalMs - 1;
+        assertFalse(scheduler.needsRefresh(Resource.APPOINTMENTS, DAY));
+        now += 1;
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS, DAY));
+    }
+
+    @Test
+    public void failedFetchIsRetriedOnlyAfterTheMinimumInterval() {
+        scheduler.refreshStarted(Resource.PATIENT, "p1");
+        scheduler.refreshFailed(Resource.PATIENT, "p1");
+        assertFalse(scheduler.needsRefresh(Resource.PATIENT, "p1"));
+        now += Resource.PATIENT.minIntervalMs;
+        assertTrue(scheduler.needsRefresh(Resource.PATIENT, "p1"));
+    }
+
+    @Test
+    public void failureForgetsTheLastSuccess() {
+        refreshed(Resource.PATIENTS, null);
+        now += Resource.PATIENTS.minIntervalMs;
+        scheduler.refreshStarted(Resource.PATIENTS, null);
+        scheduler.refreshFailed(Resource.PATIENTS, null);
+        now += Resource.PATIENTS.minIntervalMs;
+        // Well within the staleness budget of the earlier success, but that data is not trusted
+        assertTrue(scheduler.needsRefresh(Resource.PATIENTS));
+    }
+
+    @Test
+    public void scopesAreIndependent() {
+        refreshed(Resource.APPOINTMENTS, DAY);
+        assertFalse(scheduler.needsRefresh(Resource.APPOINTMENTS, DAY));
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS, OTHER_DAY));
+    }
+
+    @Test
+    public void invalidationMakesEveryScopeDueAtOnce() {
+        refreshed(Resource.APPOINTMENTS, DAY);
+        refreshed(Resource.APPOINTMENTS, OTHER_DAY);
+        refreshed(Resource.PATIENTS, null);
+
+        scheduler.invalidate(Resource.APPOINTMENTS);
+
+        // Even within the minimum interval
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS, DAY));
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS, OTHER_DAY));
+        assertFalse(scheduler.needsRefresh(Resource.PATIENTS));
+    }
+
+    @Test
+    public void scopedInvalidationLeavesOtherScopesAlone() {
+        refreshed(Resource.APPOINTMENTS, DAY);
+        refreshed(Resource.APPOINTMENTS, OTHER_DAY);
+        scheduler.invalidate(Resource.APPOINTMENTS, DAY);
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS, DAY));
+        assertFalse(scheduler.needsRefresh(Resource.APPOINTMENTS, OTHER_DAY));
+    }
+
+    @Test
+    public void startingAFetchConsumesTheInvalidation() {
+        refreshed(Resource.DASHBOARD, null);
+        scheduler.invalidate(Resource.DASHBOARD);
+        scheduler.refreshStarted(Resource.DASHBOARD, null);
+        assertFalse(scheduler.needsRefresh(Resource.DASHBOARD));
+
+        // A mutation while that fetch runs must not be lost
+        scheduler.invalidate(Resource.DASHBOARD);
+        scheduler.refreshSucceeded(Resource.DASHBOARD, null);
+        assertTrue(scheduler.needsRefresh(Resource.DASHBOARD));
+    }
+
+    @Test
+    public void clearForgetsEverything() {
+        refreshed(Resource.APPOINTMENTS, DAY);
+        scheduler.clear();
+        assertTrue(scheduler.needsRefresh(Resource.APPOINTMENTS, DAY));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.myapplication.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DateUtilsTest {
+
+    // 2024-03-05T14:30:00Z
+    private static final long MARCH_5_1430_UTC = 1_709_649_000_000L;
+
+    private TimeZone savedZone;
+    private Locale savedLocale;
+
+    @Before
+    public void setUp() {
+        savedZone = TimeZone.getDefault();
+        savedLocale = Locale.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(savedZone);
+        Locale.setDefault(savedLocale);
+    }
+
+    @Test
+    public void epochDayCountsFromTheEpoch() {
+        assertEquals(0, DateUtils.epochDay(1970, 1, 1));
+        assertEquals(-1, DateUtils.epochDay(1969, 12, 31));
+        assertEquals(11016, DateUtils.epochDay(2000, 2, 29));
+        assertEquals(19787, DateUtils.epochDay(2024, 3, 5));
+    }
+
+    @Test
+    public void epochDayOfReadsTheDatePart() {
+        assertEquals(19787, DateUtils.epochDayOf("2024-03-05"));
+        assertEquals(19787, DateUtils.epochDayOf("2024-03-05T23:59:59"));
+    }
+
+    @Test
+    public void leapDaysExistOnlyInLeapYears() {
+        assertEquals(19782, DateUtils.epochDayOf("2024-02-29"));
+        assertEquals(11016, DateUtils.epochDayOf("2000-02-29"));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.epochDayOf("2023-02-29"));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.epochDayOf("2100-02-29"));
+    }
+
+    @Test
+    public void daysPastTheEndOfTheMonthAreRejected() {
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.epochDayOf("2024-02-30"));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.epochDayOf("2024-04-31"));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.epochDayOf("2024-11-31"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-02-30T10:00:00"));
+    }
+
+    @Test
+    public void daysInMonth() {
+        assertEquals(31, DateUtils.daysInMonth(2024, 1));
+        assertEquals(29, DateUtils.daysInMonth(2024, 2));
+        assertEquals(28, DateUtils.daysInMonth(2023, 2));
+        assertEquals(28, DateUtils.daysInMonth(1900, 2));
+        assertEquals(30, DateUtils.daysInMonth(2024, 9));
+        assertEquals(31, DateUtils.daysInMonth(2024, 12));
+    }
+
+    @Test
+    public void parsesLocalTimestamps() {
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis("2024-03-05T14:30:00"));
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis("2024-03-05T14:30"));
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis("2024-03-05 14:30:00"));
+        assertEquals(MARCH_5_1430_UTC - 52_200_000L, DateUtils.parseIsoMillis("2024-03-05"));
+    }
+
+    @Test
+    public void localTimestampsFollowTheDeviceZone() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+        // Summer time: 10:00 in Paris is 08:00 UTC
+        assertEquals(1_719_820_800_000L, DateUtils.parseIsoMillis("2024-07-01T10:00:00"));
+        // Winter time: 10:00 in Paris is 09:00 UTC
+        assertEquals(1_705_309_200_000L, DateUtils.parseIsoMillis("2024-01-15T10:00:00"));
+    }
+
+    @Test
+    public void parsesOffsetsAndFractions() {
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis("2024-03-05T14:30:00Z"));
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis("2024-03-05T16:30:00+02:00"));
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis("2024-03-05T09:00:00-05:30"));
+        // .NET sends seven fraction digits; only milliseconds are kept
+        assertEquals(MARCH_5_1430_UTC + 123, DateUtils.parseIsoMillis("2024-03-05T14:30:00.1234567Z"));
+        assertEquals(MARCH_5_1430_UTC + 500, DateUtils.parseIsoMillis("2024-03-05T14:30:00.5"));
+    }
+
+    @Test
+    public void malformedTimestampsAreInvalid() {
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis(null));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis(""));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-3-05T14:30:00"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-13-05T14:30:00"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-03-00T14:30:00"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-03-05T24:00:00"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-03-05T14:60:00"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-03-05X14:30:00"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-03-05T14:30:00+0200"));
+        assertEquals(DateUtils.INVALID_TIME, DateUtils.parseIsoMillis("2024-03-05T14:30:00Zjunk"));
+    }
+
+    @Test
+    public void localEpochDayUsesTheDeviceZone() {
+        assertEquals(19787, DateUtils.localEpochDay(MARCH_5_1430_UTC));
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        // 23:30 in Tokyo
+        assertEquals(19787, DateUtils.localEpochDay(MARCH_5_1430_UTC));
+        assertEquals(19788, DateUtils.localEpochDay(MARCH_5_1430_UTC + 1_800_000L));
+        assertEquals(DateUtils.INVALID_DAY, DateUtils.localEpochDay(DateUtils.INVALID_TIME));
+    }
+
+    @Test
+    public void utcTodayIgnoresTheDeviceZone() {
+        int expected = (int) (System.currentTimeMillis() / 86_400_000L);
+        TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"));
+        int utcToday = DateUtils.utcToday();
+        // Allow for midnight UTC passing between the two reads
+        assertTrue(utcToday == expected || utcToday == expected + 1);
+    }
+
+    @Test
+    public void formatsInTheDeviceZone() {
+        assertEquals("2024-03-05T14:30:00", DateUtils.formatIso(new Date(MARCH_5_1430_UTC)));
+        assertEquals("2024-03-05 14:30", DateUtils.formatDateTime(MARCH_5_1430_UTC));
+        assertEquals("05/03/2024", DateUtils.formatShortDate(MARCH_5_1430_UTC));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+        assertEquals("2024-03-05 15:30", DateUtils.formatDateTime(MARCH_5_1430_UTC));
+    }
+
+    @Test
+    public void formattingInvalidTimeGivesEmptyText() {
+        assertEquals("", DateUtils.formatDateTime(DateUtils.INVALID_TIME));
+        assertEquals("", DateUtils.formatShortDate(DateUtils.INVALID_TIME));
+    }
+
+    @Test
+    public void formatIsoRoundTrips() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Paris"));
+        String iso = DateUtils.formatIso(new Date(MARCH_5_1430_UTC));
+        assertEquals(MARCH_5_1430_UTC, DateUtils.parseIsoMillis(iso));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.myapplication.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class PrefixIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Hélène Dupont",
+            "Jean-Marc Petit",
+            "Élodie Œuvray",
+            "Marc Durand",
+            "Helen Hunt");
+
+    private final PrefixIndex<String> index = PrefixIndex.build(NAMES, Function.identity());
+
+    private List<String> search(String query) {
+        return index.search(query, null).getItems();
+    }
+
+    @Test
+    public void normalizeFoldsCaseAndAccents() {
+        assertEquals("helene oeuvray", PrefixIndex.normalize("Hélène Œuvray"));
+        assertEquals("elodie", PrefixIndex.normalize("ÉLODIE"));
+        assertEquals("aesthete strasse", PrefixIndex.normalize("Æsthete Straße"));
+        assertEquals("", PrefixIndex.normalize(null));
+    }
+
+    @Test
+    public void matchesAccentedNamesWithoutAccents() {
+        assertEquals(Collections.singletonList("Hélène Dupont"), search("helene"));
+        assertEquals(Collections.singletonList("Hélène Dupont"), search("HÉLÈNE"));
+        assertEquals(Collections.singletonList("Élodie Œuvray"), search("oeuv"));
+        assertEquals(Collections.singletonList("Élodie Œuvray"), search("elo"));
+    }
+
+    @Test
+    public void matchesWordPrefixesOnly() {
+        assertEquals(Arrays.asList("Hélène Dupont", "Helen Hunt"), search("hel"));
+        assertTrue(search("lene").isEmpty());
+        assertTrue(search("pont").isEmpty());
+    }
+
+    @Test
+    public void hyphensSeparateWords() {
+        assertEquals(Arrays.asList("Jean-Marc Petit", "Marc Durand"), search("marc"));
+        assertEquals(Collections.singletonList("Jean-Marc Petit"), search("jean-marc"));
+    }
+
+    @Test
+    public void everyQueryWordMustMatchInAnyOrder() {
+        assertEquals(Collections.singletonList("Hélène Dupont"), search("dup hel"));
+        assertEquals(Collections.singletonList("Hélène Dupont"), search("hel dup"));
+        assertEquals(Collections.singletonList("Marc Durand"), search("marc du"));
+        assertTrue(search("hel petit").isEmpty());
+    }
+
+    @Test
+    public void blankQueryMatchesEverything() {
+        assertEquals(NAMES, search(""));
+        assertEquals(NAMES, search("  - "));
+        assertEquals(NAMES, search(null));
+    }
+
+    @Test
+    public void growingQueryNarrowsThePreviousMatch() {
+        PrefixIndex.Match<String> match = index.search("", null);
+        for (String query : new String[] {"d", "du", "dur", "dura"}) {
+            match = index.search(query, match);
+            assertEquals(query, search(query), match.getItems());
+        }
+        assertEquals(Collections.singletonList("Marc Durand"), match.getItems());
+
+        // A second word is checked against every item the first one kept
+        match = index.search("m", null);
+        match = index.search("m d", match);
+        assertEquals(Collections.singletonList("Marc Durand"), match.getItems());
+    }
+
+    @Test
+    public void previousMatchIsIgnoredWhenTheQueryIsNotAnExtension() {
+        PrefixIndex.Match<String> dupont = index.search("dup", null);
+        assertEquals(Arrays.asList("Hélène Dupont", "Helen Hunt"), index.search("hel", dupont).getItems());
+        assertEquals(Arrays.asList("Hélène Dupont", "Marc Durand"), index.search("du", dupont).getItems());
+    }
+
+    @Test
+    public void previousMatchFromAnotherIndexIsIgnored() {
+        PrefixIndex<String> other = PrefixIndex.build(Collections.singletonList("Marc Durand"), Function.identity());
+        PrefixIndex.Match<String> foreign = other.search("m", null);
+        assertEquals(Arrays.asList("Jean-Marc Petit", "Marc Durand"), index.search("ma", foreign).getItems());
+    }
+
+    @Test
+    public void laterChangesToTheSourceListAreNotSeen() {
+        List<String> source = new ArrayList<>(NAMES);
+        PrefixIndex<String> copy = PrefixIndex.build(source, Function.identity());
+        source.clear();
+        assertEquals(NAMES, copy.getItems());
+    }
+}